@@ -0,0 +1,137 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+// Every running animation advances from one frame callback, so the cost per
+// frame is a single timer tick however many animations are active. Progress
+// comes from elapsed time, not from counting frames, so late frames skip
+// ahead instead of stretching the animation.
+final class Animator {
+    private static final List<Animation> ACTIVE = new ArrayList<>();
+    private static boolean scheduled;
+
+    private Animator() {
+    }
+
+    // Animation state lives on the EDT; callers on other threads hop there, so
+    // starting values are read on the EDT too.
+    static void onEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    }
+
+    // A new animation of the same property on the same target replaces the running one.
+    static void start(Object target, String property, long durationMillis, Easing easing, DoubleConsumer frame) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> start(target, property, durationMillis, easing, frame));
+            return;
+        }
+        stopNow(target, property);
+        if (durationMillis <= 0) {
+            frame.accept(1.0);
+            return;
+        }
+        ACTIVE.add(new Animation(target, property, durationMillis * 1_000_000L,
+                easing != null ? easing : Easing.linear(), frame));
+        schedule();
+    }
+
+    // A null property stops every animation on the target.
+    static void stop(Object target, String property) {
+        onEdt(() -> stopNow(target, property));
+    }
+
+    private static void stopNow(Object target, String property) {
+        ACTIVE.removeIf(animation -> {
+            if (animation.matches(target, property)) {
+                animation.done = true;
+            }
+            return animation.done;
+        });
+    }
+
+    static boolean isRunning(Object target, String property) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("Animation state can only be read on the event dispatch thread");
+        }
+        for (Animation animation : ACTIVE) {
+            if (!animation.done && animation.matches(target, property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int lerp(int from, int to, double progress) {
+        return (int) Math.round(from + (to - from) * progress);
+    }
+
+    static Color lerp(Color from, Color to, double progress) {
+        return new Color(
+                clamp(lerp(from.getRed(), to.getRed(), progress)),
+                clamp(lerp(from.getGreen(), to.getGreen(), progress)),
+                clamp(lerp(from.getBlue(), to.getBlue(), progress)),
+                clamp(lerp(from.getAlpha(), to.getAlpha(), progress)));
+    }
+
+    private static int clamp(int channel) {
+        return Math.max(0, Math.min(255, channel));
+    }
+
+    private static void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            FrameClock.requestFrame(Animator::tick);
+        }
+    }
+
+    private static void tick() {
+        scheduled = false;
+        long now = System.nanoTime();
+        // Frame callbacks may start or stop animations, so work from a snapshot.
+        Animation[] running = ACTIVE.toArray(new Animation[0]);
+        for (Animation animation : running) {
+            if (animation.done) {
+                continue;
+            }
+            double fraction = Math.min(1.0, (double) (now - animation.startNanos) / animation.durationNanos);
+            if (fraction >= 1.0) {
+                animation.done = true;
+            }
+            animation.frame.accept(fraction >= 1.0 ? 1.0 : animation.easing.apply(Math.max(0.0, fraction)));
+        }
+        ACTIVE.removeIf(animation -> animation.done);
+        if (!ACTIVE.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private static final class Animation {
+        final Object target;
+        final String property;
+        final long startNanos = System.nanoTime();
+        final long durationNanos;
+        final Easing easing;
+        final DoubleConsumer frame;
+        boolean done;
+
+        Animation(Object target, String property, long durationNanos, Easing easing, DoubleConsumer frame) {
+            this.target = target;
+            this.property = property;
+            this.durationNanos = durationNanos;
+            this.easing = easing;
+            this.frame = frame;
+        }
+
+        boolean matches(Object target, String property) {
+            return this.target == target && (property == null || this.property.equals(property));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vibeui;
+
+import javax.swing.plaf.basic.BasicComboBoxEditor;
+import java.util.function.Function;
+
+class AutocompleteEditor<E> extends BasicComboBoxEditor {
+    private final AutocompleteModel<E> model;
+    private Function<? super E, String> textFunction;
+    private Object item;
+    private boolean settingItem;
+
+    AutocompleteEditor(AutocompleteModel<E> model, Function<? super E, String> textFunction) {
+        this.model = model;
+        this.textFunction = textFunction;
+    }
+
+    void setTextFunction(Function<? super E, String> textFunction) {
+        this.textFunction = textFunction;
+        setItem(item);
+    }
+
+    boolean isSettingItem() {
+        return settingItem;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setItem(Object anObject) {
+        if (model.isTyping()) {
+            return;
+        }
+        item = anObject;
+        String text = anObject == null ? "" : textFunction.apply((E) anObject);
+        if (text == null) {
+            text = "";
+        }
+        if (!text.equals(editor.getText())) {
+            settingItem = true;
+            try {
+                editor.setText(text);
+            } finally {
+                settingItem = false;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object getItem() {
+        String text = editor.getText();
+        if (item != null && text.equals(textFunction.apply((E) item))) {
+            return item;
+        }
+        E match = model.exactMatchItem(text);
+        return match != null ? match : text;
+    }
+}
@@ -0,0 +1,213 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+@SuppressWarnings("serial")
+class AutocompleteModel<E> extends AbstractListModel<E> implements ComboBoxModel<E>, ListDataListener {
+    static final int DEFAULT_MAX_RESULTS = 50;
+
+    private final ItemComboBoxModel<E> source;
+    private Function<? super E, String> textFunction;
+    private final int maxResults;
+    private PrefixIndex index;
+    private Future<?> pendingIndex;
+    private boolean rebuildScheduled;
+    private int generation;
+    private String typedText;
+    private String query;
+    private int[] matches;
+
+    AutocompleteModel(ItemComboBoxModel<E> source, Function<? super E, String> textFunction, int maxResults) {
+        this.source = source;
+        this.textFunction = textFunction;
+        this.maxResults = Math.max(1, maxResults);
+        source.addListDataListener(this);
+        scheduleIndex();
+    }
+
+    @Override
+    public int getSize() {
+        return matches == null ? source.getSize() : matches.length;
+    }
+
+    @Override
+    public E getElementAt(int index) {
+        if (matches == null) {
+            return source.getElementAt(index);
+        }
+        return index >= 0 && index < matches.length ? source.getElementAt(matches[index]) : null;
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return source.getSelectedItem();
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (item instanceof String && !source.contains(item)) {
+            int row = exactMatch((String) item);
+            if (row < 0) {
+                return;
+            }
+            item = source.getElementAt(row);
+        } else if (item != null && !source.contains(item)) {
+            return;
+        }
+        boolean wasTyping = typedText != null;
+        typedText = null;
+        source.setSelectedItem(item);
+        if (wasTyping) {
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    boolean isTyping() {
+        return typedText != null;
+    }
+
+    boolean hasMatches() {
+        return matches != null;
+    }
+
+    void setTypedText(String text) {
+        typedText = text;
+        query = text == null || text.isEmpty() ? null : FilteredListModel.lowerCase(text);
+        applyMatches(query == null ? null : search(query));
+    }
+
+    void clearMatches() {
+        query = null;
+        if (matches != null) {
+            applyMatches(null);
+        }
+    }
+
+    E exactMatchItem(String text) {
+        int row = exactMatch(text);
+        return row < 0 ? null : source.getElementAt(row);
+    }
+
+    void setTextFunction(Function<? super E, String> textFunction) {
+        this.textFunction = textFunction;
+        sourceChanged();
+    }
+
+    void dispose() {
+        source.removeListDataListener(this);
+        BackgroundTasks.cancel(pendingIndex);
+    }
+
+    private void applyMatches(int[] newMatches) {
+        int oldSize = getSize();
+        matches = newMatches;
+        int span = Math.max(oldSize, getSize());
+        if (span > 0) {
+            fireContentsChanged(this, 0, span - 1);
+        }
+    }
+
+    private int[] search(String query) {
+        if (index != null) {
+            return index.search(query, maxResults);
+        }
+        return PrefixIndex.scan(row -> lowerTextOf(source.getElementAt(row)), source.getSize(), query, maxResults);
+    }
+
+    private int exactMatch(String text) {
+        String query = FilteredListModel.lowerCase(text);
+        if (index != null) {
+            return index.exactMatch(query);
+        }
+        for (int row = 0; row < source.getSize(); row++) {
+            if (lowerTextOf(source.getElementAt(row)).equals(query)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private String lowerTextOf(E item) {
+        return lowerTextOf(textFunction, item);
+    }
+
+    private static <E> String lowerTextOf(Function<? super E, String> textFunction, E item) {
+        String text = item == null ? null : textFunction.apply(item);
+        return text == null ? "" : FilteredListModel.lowerCase(text);
+    }
+
+    private void scheduleIndex() {
+        generation++;
+        index = null;
+        BackgroundTasks.cancel(pendingIndex);
+        pendingIndex = null;
+        if (!rebuildScheduled) {
+            rebuildScheduled = true;
+            SwingUtilities.invokeLater(this::rebuildIndex);
+        }
+    }
+
+    private void rebuildIndex() {
+        rebuildScheduled = false;
+        int indexGeneration = generation;
+        Function<? super E, String> function = textFunction;
+        Object[] rows = new Object[source.getSize()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = source.getElementAt(i);
+        }
+        pendingIndex = BackgroundTasks.submit(() -> {
+            String[] texts = new String[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                @SuppressWarnings("unchecked")
+                E row = (E) rows[i];
+                texts[i] = lowerTextOf(function, row);
+            }
+            PrefixIndex built = PrefixIndex.build(texts);
+            SwingUtilities.invokeLater(() -> {
+                if (indexGeneration == generation) {
+                    index = built;
+                    pendingIndex = null;
+                }
+            });
+        });
+    }
+
+    private void sourceChanged() {
+        scheduleIndex();
+        if (matches != null) {
+            applyMatches(query == null ? null : search(query));
+        }
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        if (matches == null) {
+            fireIntervalAdded(this, e.getIndex0(), e.getIndex1());
+        }
+        sourceChanged();
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        if (matches == null) {
+            fireIntervalRemoved(this, e.getIndex0(), e.getIndex1());
+        }
+        sourceChanged();
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        if (e.getIndex0() == -1 && e.getIndex1() == -1) {
+            fireContentsChanged(this, -1, -1);
+            return;
+        }
+        if (matches == null) {
+            fireContentsChanged(this, e.getIndex0(), e.getIndex1());
+        }
+        sourceChanged();
+    }
+}
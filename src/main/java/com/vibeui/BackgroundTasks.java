@@ -0,0 +1,38 @@
+package com.vibeui;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class BackgroundTasks {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ThreadFactory THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "vibe-ui-worker-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    };
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() - 1), THREAD_FACTORY);
+
+    private BackgroundTasks() {
+    }
+
+    static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    static Future<?> submit(Runnable task) {
+        return EXECUTOR.submit(task);
+    }
+
+    static void cancel(Future<?> task) {
+        if (task != null && !task.isDone()) {
+            task.cancel(true);
+        }
+    }
+}
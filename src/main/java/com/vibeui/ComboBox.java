@@ -1,43 +1,111 @@
 package com.vibeui;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+import javax.swing.text.JTextComponent;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-public class ComboBox extends Component<ComboBox> {
-    private JComboBox<String> comboBox;
-    private Consumer<String> changeHandler;
-    private Consumer<String> selectionHandler;
-    private List<String> items = new ArrayList<>();
+public class ComboBox<T> extends Component<ComboBox<T>> {
+    private JComboBox<T> comboBox;
+    private ItemComboBoxModel<T> model;
+    private ProjectionCellRenderer<T> renderer;
+    private Function<? super T, String> projection;
+    private AutocompleteModel<T> autocomplete;
+    private AutocompleteEditor<T> autocompleteEditor;
+    private boolean typingScheduled;
+    private Supplier<? extends CompletableFuture<? extends List<? extends T>>> loader;
+    private PlaceholderComboBoxModel<T> loadingModel;
+    private CompletableFuture<? extends List<? extends T>> pendingLoad;
+    private Duration cacheDuration;
+    private long loadedAt;
+    private boolean loaded;
+    private int loadGeneration;
+    private Consumer<T> changeHandler;
+    private Consumer<T> selectionHandler;
+    private Consumer<Throwable> loadErrorHandler;
 
-    private ComboBox(String[] items) {
-        super(new JComboBox<>(items));
-        this.comboBox = (JComboBox<String>) swingComponent;
-        this.items.addAll(Arrays.asList(items));
+    @SuppressWarnings("unchecked")
+    private ComboBox(ItemComboBoxModel<T> model, Function<? super T, String> projection) {
+        super(new JComboBox<>(model));
+        this.comboBox = (JComboBox<T>) swingComponent;
+        this.model = model;
+        this.projection = projection;
+        this.renderer = new ProjectionCellRenderer<>(comboBox.getRenderer(), projection);
+        renderer.attach(model);
+        comboBox.setRenderer(renderer);
         setupEventHandlers();
     }
 
-    private ComboBox(List<String> items) {
-        super(new JComboBox<>(items.toArray(new String[0])));
-        this.comboBox = (JComboBox<String>) swingComponent;
-        this.items.addAll(items);
-        setupEventHandlers();
+    public static ComboBox<String> create(String... items) {
+        return create(Arrays.asList(items));
+    }
+
+    public static ComboBox<String> create(List<String> items) {
+        return create(items, String::valueOf);
+    }
+
+    public static <T> ComboBox<T> create(List<T> items, Function<? super T, String> projection) {
+        return new ComboBox<>(new ItemComboBoxModel<>(new ArrayList<>(items)), projection);
+    }
+
+    public static ComboBox<String> create(ItemCatalog<String> catalog) {
+        return create(catalog, String::valueOf);
+    }
+
+    public static <T> ComboBox<T> create(ItemCatalog<T> catalog, Function<? super T, String> projection) {
+        return new ComboBox<>(new ItemComboBoxModel<>(catalog), projection);
+    }
+
+    public static ComboBox<String> createEmpty() {
+        return createEmpty(String::valueOf);
+    }
+
+    public static <T> ComboBox<T> createEmpty(Function<? super T, String> projection) {
+        return new ComboBox<>(new ItemComboBoxModel<>(), projection);
+    }
+
+    public static ComboBox<String> createCompact(List<String> items) {
+        ComboBox<String> comboBox = new ComboBox<>(new ItemComboBoxModel<>(new CompactStringList(items)), String::valueOf);
+        comboBox.comboBox.setPrototypeDisplayValue(CompactStringList.prototypeOf(items));
+        return comboBox;
     }
 
-    public static ComboBox create(String... items) {
-        return new ComboBox(items);
+    public static ComboBox<String> createCompact() {
+        return new ComboBox<>(new ItemComboBoxModel<>(new CompactStringList()), String::valueOf);
     }
 
-    public static ComboBox create(List<String> items) {
-        return new ComboBox(items);
+    public static ComboBox<String> lazy(Supplier<? extends List<String>> supplier) {
+        return lazy(supplier, String::valueOf);
     }
 
-    public static ComboBox createEmpty() {
-        return new ComboBox(new String[0]);
+    public static <T> ComboBox<T> lazy(Supplier<? extends List<? extends T>> supplier,
+                                       Function<? super T, String> projection) {
+        return lazyAsync(() -> CompletableFuture.supplyAsync(supplier::get, BackgroundTasks.executor()), projection);
+    }
+
+    public static ComboBox<String> lazyAsync(Supplier<? extends CompletableFuture<? extends List<String>>> loader) {
+        return lazyAsync(loader, String::valueOf);
+    }
+
+    public static <T> ComboBox<T> lazyAsync(Supplier<? extends CompletableFuture<? extends List<? extends T>>> loader,
+                                            Function<? super T, String> projection) {
+        ComboBox<T> comboBox = createEmpty(projection);
+        comboBox.installLoader(loader);
+        return comboBox;
     }
 
     @Override
@@ -49,7 +117,10 @@ public class ComboBox extends Component<ComboBox> {
         comboBox.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                String selectedItem = (String) comboBox.getSelectedItem();
+                if (autocomplete != null && autocomplete.isTyping() || comboBox.getModel() == loadingModel) {
+                    return;
+                }
+                T selectedItem = getSelectedItem();
                 if (changeHandler != null) {
                     changeHandler.accept(selectedItem);
                 }
@@ -60,78 +131,311 @@ public class ComboBox extends Component<ComboBox> {
         });
     }
 
-    public ComboBox onChange(Consumer<String> handler) {
+    public ComboBox<T> onChange(Consumer<T> handler) {
         this.changeHandler = handler;
         return this;
     }
 
-    public ComboBox onSelection(Consumer<String> handler) {
+    public ComboBox<T> onSelection(Consumer<T> handler) {
         this.selectionHandler = handler;
         return this;
     }
 
-    public ComboBox addItem(String item) {
-        items.add(item);
-        comboBox.addItem(item);
+    public ComboBox<T> onLoadError(Consumer<Throwable> handler) {
+        this.loadErrorHandler = handler;
+        return this;
+    }
+
+    public ComboBox<T> addItem(T item) {
+        model.addElement(item);
         return this;
     }
 
-    public ComboBox removeItem(String item) {
-        items.remove(item);
-        comboBox.removeItem(item);
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final ComboBox<T> addItems(T... items) {
+        return addItems(Arrays.asList(items));
+    }
+
+    public ComboBox<T> addItems(List<? extends T> items) {
+        model.addAll(items);
+        return this;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final ComboBox<T> setItems(T... items) {
+        return setItems(Arrays.asList(items));
+    }
+
+    public ComboBox<T> setItems(List<? extends T> items) {
+        model.setAll(items);
         return this;
     }
 
-    public ComboBox removeAllItems() {
-        items.clear();
-        comboBox.removeAllItems();
+    public ComboBox<T> removeItem(T item) {
+        model.removeElement(item);
         return this;
     }
 
-    public ComboBox selectedItem(String item) {
+    public ComboBox<T> removeAllItems() {
+        model.clear();
+        return this;
+    }
+
+    public ComboBox<T> selectedItem(T item) {
         comboBox.setSelectedItem(item);
         return this;
     }
 
-    public ComboBox selectedIndex(int index) {
-        if (index >= 0 && index < comboBox.getItemCount()) {
-            comboBox.setSelectedIndex(index);
+    public ComboBox<T> selectedIndex(int index) {
+        if (index >= 0 && index < model.getSize()) {
+            comboBox.setSelectedItem(model.getElementAt(index));
+        }
+        return this;
+    }
+
+    public ComboBox<T> projection(Function<? super T, String> projection) {
+        this.projection = projection;
+        renderer.setProjection(projection);
+        if (autocomplete != null) {
+            autocomplete.setTextFunction(projection);
+            autocompleteEditor.setTextFunction(projection);
         }
+        comboBox.repaint();
         return this;
     }
 
-    public ComboBox editable(boolean editable) {
+    public ComboBox<T> autocomplete() {
+        return autocomplete(AutocompleteModel.DEFAULT_MAX_RESULTS);
+    }
+
+    public ComboBox<T> autocomplete(int maxResults) {
+        if (autocomplete != null) {
+            return this;
+        }
+        autocomplete = new AutocompleteModel<>(model, projection, maxResults);
+        AutocompleteEditor<T> editor = new AutocompleteEditor<>(autocomplete, projection);
+        autocompleteEditor = editor;
+        comboBox.setModel(autocomplete);
+        renderer.attach(autocomplete);
+        comboBox.setEditor(editor);
+        comboBox.setEditable(true);
+
+        JTextComponent field = (JTextComponent) editor.getEditorComponent();
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                typed(editor, field);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                typed(editor, field);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        comboBox.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+                if (!autocomplete.isTyping()) {
+                    autocomplete.clearMatches();
+                }
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+        return this;
+    }
+
+    private void typed(AutocompleteEditor<T> editor, JTextComponent field) {
+        if (editor.isSettingItem() || typingScheduled) {
+            return;
+        }
+        typingScheduled = true;
+        SwingUtilities.invokeLater(() -> {
+            typingScheduled = false;
+            int oldSize = autocomplete.getSize();
+            autocomplete.setTypedText(field.getText());
+            if (!comboBox.isShowing()) {
+                return;
+            }
+            if (autocomplete.getSize() == 0) {
+                comboBox.hidePopup();
+            } else if (!comboBox.isPopupVisible()) {
+                comboBox.showPopup();
+            } else if (autocomplete.getSize() != oldSize) {
+                comboBox.hidePopup();
+                comboBox.showPopup();
+            }
+        });
+    }
+
+    public ComboBox<T> cacheFor(Duration duration) {
+        this.cacheDuration = duration;
+        return this;
+    }
+
+    public ComboBox<T> invalidate() {
+        if (loader == null) {
+            return this;
+        }
+        loadGeneration++;
+        pendingLoad = null;
+        loadedAt = Long.MIN_VALUE;
+        restoreItemsModel();
+        if (comboBox.isPopupVisible()) {
+            loadItems();
+        }
+        return this;
+    }
+
+    private void installLoader(Supplier<? extends CompletableFuture<? extends List<? extends T>>> loader) {
+        this.loader = loader;
+        this.loadingModel = new PlaceholderComboBoxModel<>(model, ProjectionCellRenderer.prototype("Loading..."));
+        comboBox.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                loadItems();
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+    }
+
+    private void loadItems() {
+        if (pendingLoad != null || loaded && !cacheExpired()) {
+            return;
+        }
+        int generation = ++loadGeneration;
+        if (model.getSize() == 0) {
+            comboBox.setModel(loadingModel);
+        }
+        CompletableFuture<? extends List<? extends T>> future;
+        try {
+            future = loader.get();
+        } catch (RuntimeException e) {
+            loadFinished(generation, null, e);
+            return;
+        }
+        if (future == null) {
+            loadFinished(generation, null, new NullPointerException("loader returned no future"));
+            return;
+        }
+        pendingLoad = future;
+        future.whenComplete((items, error) ->
+                SwingUtilities.invokeLater(() -> loadFinished(generation, error == null ? items : null, error)));
+    }
+
+    private boolean cacheExpired() {
+        if (loadedAt == Long.MIN_VALUE) {
+            return true;
+        }
+        return cacheDuration != null && System.nanoTime() - loadedAt >= cacheDuration.toNanos();
+    }
+
+    // A failed load leaves loaded unset, so the next popup open tries again.
+    private void loadFinished(int generation, List<? extends T> items, Throwable error) {
+        if (generation != loadGeneration) {
+            return;
+        }
+        pendingLoad = null;
+        if (error == null && items == null) {
+            error = new NullPointerException("loader completed with no items");
+        }
+        boolean reshow = false;
+        if (items != null) {
+            int oldSize = model.getSize();
+            model.setAll(items);
+            loaded = true;
+            loadedAt = System.nanoTime();
+            reshow = comboBox.getModel() == loadingModel || oldSize != model.getSize();
+        }
+        restoreItemsModel();
+        if (reshow && comboBox.isPopupVisible()) {
+            comboBox.hidePopup();
+            comboBox.showPopup();
+        }
+        if (error != null && loadErrorHandler != null) {
+            loadErrorHandler.accept(unwrap(error));
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private void restoreItemsModel() {
+        if (comboBox.getModel() == loadingModel) {
+            comboBox.setModel(autocomplete != null ? autocomplete : model);
+        }
+    }
+
+    public ComboBox<T> editable(boolean editable) {
         comboBox.setEditable(editable);
         return this;
     }
 
-    public ComboBox maxRowCount(int rows) {
+    public ComboBox<T> maxRowCount(int rows) {
         comboBox.setMaximumRowCount(rows);
         return this;
     }
 
-    public String getSelectedItem() {
-        return (String) comboBox.getSelectedItem();
+    public ComboBox<T> prototypeValue(String prototype) {
+        comboBox.setPrototypeDisplayValue(ProjectionCellRenderer.prototype(prototype));
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getSelectedItem() {
+        return (T) model.getSelectedItem();
     }
 
     public int getSelectedIndex() {
-        return comboBox.getSelectedIndex();
+        return model.indexOf(model.getSelectedItem());
+    }
+
+    public boolean contains(T item) {
+        return model.contains(item);
+    }
+
+    public int indexOf(T item) {
+        return model.indexOf(item);
     }
 
     public int getItemCount() {
-        return comboBox.getItemCount();
+        return model.getSize();
     }
 
-    public String getItemAt(int index) {
-        return comboBox.getItemAt(index);
+    public T getItemAt(int index) {
+        return index >= 0 && index < model.getSize() ? model.getElementAt(index) : null;
     }
 
-    public List<String> getAllItems() {
-        return new ArrayList<>(items);
+    public List<T> getAllItems() {
+        return model.snapshot();
     }
 
     @Override
-    public ComboBox build() {
+    public ComboBox<T> build() {
         return this;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,236 @@
+package com.vibeui;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+class CompactStringList extends AbstractList<String> implements RandomAccess {
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private static final int NULL_LENGTH = -1;
+    private static final int PROTOTYPE_SAMPLE_SIZE = 256;
+
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long[] offsets = new long[16];
+    private int[] lengths = new int[16];
+    private int size;
+    private long liveBytes;
+    private long garbageBytes;
+
+    CompactStringList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    CompactStringList(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    CompactStringList(Collection<String> items) {
+        this();
+        addAll(items);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String get(int index) {
+        checkIndex(index);
+        int length = lengths[index];
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length == 0) {
+            return "";
+        }
+        long offset = offsets[index];
+        ByteBuffer chunk = chunks.get((int) (offset >>> 32)).duplicate();
+        chunk.position((int) offset);
+        byte[] bytes = new byte[length];
+        chunk.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String set(int index, String item) {
+        String previous = get(index);
+        release(index);
+        store(index, item);
+        compactIfWasteful();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, String item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(offsets, index, offsets, index + 1, size - index);
+        System.arraycopy(lengths, index, lengths, index + 1, size - index);
+        size++;
+        store(index, item);
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> items) {
+        return addAll(size, items);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends String> items) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int count = items.size();
+        if (count == 0) {
+            return false;
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(offsets, index, offsets, index + count, size - index);
+        System.arraycopy(lengths, index, lengths, index + count, size - index);
+        size += count;
+        int position = index;
+        for (String item : items) {
+            store(position++, item);
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public String remove(int index) {
+        String previous = get(index);
+        removeRange(index, index + 1);
+        return previous;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        for (int i = fromIndex; i < toIndex; i++) {
+            release(i);
+        }
+        System.arraycopy(offsets, toIndex, offsets, fromIndex, size - toIndex);
+        System.arraycopy(lengths, toIndex, lengths, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        modCount++;
+        compactIfWasteful();
+    }
+
+    @Override
+    public void clear() {
+        chunks.clear();
+        offsets = new long[16];
+        lengths = new int[16];
+        size = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        modCount++;
+    }
+
+    static String prototypeOf(List<String> items) {
+        String longest = "";
+        for (int i = 0; i < Math.min(items.size(), PROTOTYPE_SAMPLE_SIZE); i++) {
+            String item = items.get(i);
+            if (item != null && item.length() > longest.length()) {
+                longest = item;
+            }
+        }
+        return longest;
+    }
+
+    long getStoredBytes() {
+        long stored = 0;
+        for (ByteBuffer chunk : chunks) {
+            stored += chunk.capacity();
+        }
+        return stored;
+    }
+
+    long getLiveBytes() {
+        return liveBytes;
+    }
+
+    private void store(int index, String item) {
+        if (item == null) {
+            offsets[index] = 0;
+            lengths[index] = NULL_LENGTH;
+            return;
+        }
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0) {
+            offsets[index] = 0;
+            lengths[index] = 0;
+            return;
+        }
+        ByteBuffer chunk = chunkWithRoom(bytes.length);
+        offsets[index] = ((long) (chunks.size() - 1) << 32) | chunk.position();
+        lengths[index] = bytes.length;
+        chunk.put(bytes);
+        liveBytes += bytes.length;
+    }
+
+    private void release(int index) {
+        if (lengths[index] > 0) {
+            liveBytes -= lengths[index];
+            garbageBytes += lengths[index];
+        }
+    }
+
+    private ByteBuffer chunkWithRoom(int length) {
+        ByteBuffer current = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (current == null || current.remaining() < length) {
+            current = ByteBuffer.allocateDirect(Math.max(chunkSize, length));
+            chunks.add(current);
+        }
+        return current;
+    }
+
+    private void compactIfWasteful() {
+        if (garbageBytes < chunkSize || garbageBytes < liveBytes) {
+            return;
+        }
+        List<ByteBuffer> oldChunks = new ArrayList<>(chunks);
+        chunks.clear();
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (int i = 0; i < size; i++) {
+            int length = lengths[i];
+            if (length <= 0) {
+                continue;
+            }
+            ByteBuffer source = oldChunks.get((int) (offsets[i] >>> 32)).duplicate();
+            source.position((int) offsets[i]);
+            source.limit((int) offsets[i] + length);
+            ByteBuffer target = chunkWithRoom(length);
+            offsets[i] = ((long) (chunks.size() - 1) << 32) | target.position();
+            target.put(source);
+            liveBytes += length;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > offsets.length) {
+            int newCapacity = Math.max(capacity, offsets.length + (offsets.length >> 1));
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
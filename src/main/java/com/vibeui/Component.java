@@ -88,6 +88,79 @@ public abstract class Component<T extends Component<T>> {
         return (T) this;
     }
 
+    public T animateBackground(Color color, int durationMillis) {
+        return animateBackground(color, durationMillis, Easing.easeInOut());
+    }
+
+    @SuppressWarnings("unchecked")
+    public T animateBackground(Color color, int durationMillis, Easing easing) {
+        Animator.onEdt(() -> {
+            Color from = swingComponent.getBackground();
+            if (from == null || color == null) {
+                backgroundColor(color);
+                return;
+            }
+            Animator.start(this, "background", durationMillis, easing,
+                    progress -> backgroundColor(progress >= 1.0 ? color : Animator.lerp(from, color, progress)));
+        });
+        return (T) this;
+    }
+
+    public T animateForeground(Color color, int durationMillis) {
+        return animateForeground(color, durationMillis, Easing.easeInOut());
+    }
+
+    @SuppressWarnings("unchecked")
+    public T animateForeground(Color color, int durationMillis, Easing easing) {
+        Animator.onEdt(() -> {
+            Color from = swingComponent.getForeground();
+            if (from == null || color == null) {
+                foregroundColor(color);
+                return;
+            }
+            Animator.start(this, "foreground", durationMillis, easing,
+                    progress -> foregroundColor(progress >= 1.0 ? color : Animator.lerp(from, color, progress)));
+        });
+        return (T) this;
+    }
+
+    public T animatePosition(int x, int y, int durationMillis) {
+        return animatePosition(x, y, durationMillis, Easing.easeInOut());
+    }
+
+    @SuppressWarnings("unchecked")
+    public T animatePosition(int x, int y, int durationMillis, Easing easing) {
+        Animator.onEdt(() -> {
+            Point from = swingComponent.getLocation();
+            Animator.start(this, "position", durationMillis, easing,
+                    progress -> position(Animator.lerp(from.x, x, progress), Animator.lerp(from.y, y, progress)));
+        });
+        return (T) this;
+    }
+
+    public T animateSize(int width, int height, int durationMillis) {
+        return animateSize(width, height, durationMillis, Easing.easeInOut());
+    }
+
+    @SuppressWarnings("unchecked")
+    public T animateSize(int width, int height, int durationMillis, Easing easing) {
+        Animator.onEdt(() -> {
+            Dimension current = swingComponent.getSize();
+            Dimension from = current.width == 0 && current.height == 0 ? swingComponent.getPreferredSize() : current;
+            Animator.start(this, "size", durationMillis, easing, progress -> {
+                size(Animator.lerp(from.width, width, progress), Animator.lerp(from.height, height, progress));
+                swingComponent.revalidate();
+            });
+        });
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T stopAnimations() {
+        Animator.stop(this, null);
+        return (T) this;
+    }
+
     public JComponent getSwingComponent() {
         return swingComponent;
     }
@@ -0,0 +1,95 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultCaret;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class ConsoleBuffer {
+    private final JTextArea area;
+    private final JScrollPane scrollPane;
+    private final LargeTextDocument document;
+    private final TextChangeDispatcher changes;
+    private final int maxLines;
+    private final Queue<CharSequence> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    ConsoleBuffer(JTextArea area, JScrollPane scrollPane, TextChangeDispatcher changes, int maxLines) {
+        this.area = area;
+        this.scrollPane = scrollPane;
+        this.document = (LargeTextDocument) area.getDocument();
+        this.changes = changes;
+        this.maxLines = Math.max(1, maxLines);
+        if (area.getCaret() instanceof DefaultCaret) {
+            ((DefaultCaret) area.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+        }
+    }
+
+    void append(CharSequence text) {
+        if (text.length() == 0) {
+            return;
+        }
+        pending.add(text);
+        if (scheduled.compareAndSet(false, true)) {
+            FrameClock.requestFrame(this::flush);
+        }
+    }
+
+    void clear() {
+        pending.clear();
+        if (SwingUtilities.isEventDispatchThread()) {
+            area.setText("");
+        } else {
+            SwingUtilities.invokeLater(() -> area.setText(""));
+        }
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        StringBuilder batch = new StringBuilder();
+        for (CharSequence next = pending.poll(); next != null; next = pending.poll()) {
+            batch.append(next);
+        }
+        if (batch.length() == 0) {
+            return;
+        }
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        boolean atBottom = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum();
+        changes.beginBulkEdit();
+        try {
+            document.insertString(document.getLength(), batch.substring(keptFrom(batch)), null);
+            trimHead();
+        } catch (BadLocationException e) {
+            return;
+        } finally {
+            changes.endBulkEdit();
+        }
+        if (atBottom) {
+            area.setCaretPosition(document.getLength());
+        }
+    }
+
+    private int keptFrom(CharSequence batch) {
+        int newlines = 0;
+        for (int i = batch.length() - 2; i >= 0; i--) {
+            if (batch.charAt(i) == '\n' && ++newlines == maxLines) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private void trimHead() throws BadLocationException {
+        int lines = document.getLineCount();
+        int length = document.getLength();
+        if (length > 0 && document.getText(length - 1, 1).charAt(0) == '\n') {
+            lines--;
+        }
+        int excess = lines - maxLines;
+        if (excess > 0) {
+            document.remove(0, document.getLineStartOffset(excess));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.vibeui;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+final class DocumentText implements CharSequence {
+    private static final int WINDOW_SIZE = 1 << 16;
+
+    private final Document document;
+    private final int length;
+    private final char[] window = new char[WINDOW_SIZE];
+    private final Segment segment = new Segment();
+    private int windowStart;
+    private int windowEnd;
+
+    DocumentText(Document document) {
+        this.document = document;
+        this.length = document.getLength();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < windowStart || index >= windowEnd) {
+            load(index);
+        }
+        return window[index - windowStart];
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        char[] chars = new char[to - from];
+        read(from, chars.length, chars, 0);
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+
+    private void load(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        int from = Math.max(0, Math.min(index - WINDOW_SIZE / 4, length - WINDOW_SIZE));
+        int count = Math.min(WINDOW_SIZE, length - from);
+        read(from, count, window, 0);
+        windowStart = from;
+        windowEnd = from + count;
+    }
+
+    private void read(int offset, int count, char[] target, int targetOffset) {
+        RuntimeException[] failure = new RuntimeException[1];
+        document.render(() -> {
+            try {
+                int done = 0;
+                while (done < count) {
+                    segment.setPartialReturn(true);
+                    document.getText(offset + done, count - done, segment);
+                    System.arraycopy(segment.array, segment.offset, target, targetOffset + done, segment.count);
+                    done += segment.count;
+                }
+            } catch (BadLocationException e) {
+                failure[0] = new IndexOutOfBoundsException(e.getMessage());
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.vibeui;
+
+public interface Easing {
+    // Maps elapsed time in [0, 1] to animation progress; 0 and 1 must map to themselves.
+    double apply(double fraction);
+
+    static Easing linear() {
+        return fraction -> fraction;
+    }
+
+    static Easing easeIn() {
+        return fraction -> fraction * fraction * fraction;
+    }
+
+    static Easing easeOut() {
+        return fraction -> {
+            double inverse = 1 - fraction;
+            return 1 - inverse * inverse * inverse;
+        };
+    }
+
+    static Easing easeInOut() {
+        return fraction -> {
+            if (fraction < 0.5) {
+                return 4 * fraction * fraction * fraction;
+            }
+            double inverse = -2 * fraction + 2;
+            return 1 - inverse * inverse * inverse / 2;
+        };
+    }
+}
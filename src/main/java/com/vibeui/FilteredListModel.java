@@ -0,0 +1,339 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Filters and indexes on the EDT, reading rows straight from the source; big
+// scans are spread over frames so neither rows nor their texts are copied.
+@SuppressWarnings("serial")
+class FilteredListModel<E> extends PermutationListModel<E> {
+    private static final int ASYNC_THRESHOLD = 20_000;
+    private static final int INDEX_THRESHOLD = 50_000;
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+    private static final long FRAME_BUDGET_NANOS = 6_000_000L;
+
+    private final Function<? super E, String> textFunction;
+    private String query;
+    private Predicate<? super E> predicate;
+    private String appliedQuery;
+    private NGramIndex ngramIndex;
+    private Scan pendingScan;
+    private IndexBuild pendingIndex;
+    private int generation;
+
+    FilteredListModel(ListModel<E> source, Function<? super E, String> textFunction) {
+        super(source);
+        this.textFunction = textFunction;
+    }
+
+    void setQuery(String query) {
+        this.predicate = null;
+        this.query = query == null || query.isEmpty() ? null : lowerCase(query);
+        refilter();
+    }
+
+    void setPredicate(Predicate<? super E> predicate) {
+        this.query = null;
+        this.appliedQuery = null;
+        this.predicate = predicate;
+        refilter();
+    }
+
+    // The text function now answers differently; drop what was derived from it.
+    void textChanged() {
+        invalidateIndex();
+        if (query != null) {
+            appliedQuery = null;
+            refilter();
+        }
+    }
+
+    boolean isFiltering() {
+        return query != null || predicate != null;
+    }
+
+    FilteredListModel<E> rebase(ListModel<E> newSource) {
+        FilteredListModel<E> rebased = new FilteredListModel<>(newSource, textFunction);
+        rebased.query = query;
+        rebased.predicate = predicate;
+        if (isFiltering()) {
+            rebased.refilter();
+        }
+        return rebased;
+    }
+
+    boolean isPending() {
+        return pendingScan != null;
+    }
+
+    @Override
+    void dispose() {
+        generation++;
+        pendingScan = null;
+        pendingIndex = null;
+        super.dispose();
+    }
+
+    private void refilter() {
+        int filterGeneration = ++generation;
+        pendingScan = null;
+
+        if (!isFiltering()) {
+            appliedQuery = null;
+            if (!isPassThrough()) {
+                applyIndices(null);
+            }
+            return;
+        }
+
+        String currentQuery = query;
+        Scan scan = new Scan(filterGeneration, candidatesFor(currentQuery), currentQuery, predicate);
+        if (scan.count < ASYNC_THRESHOLD) {
+            scan.advance(Long.MAX_VALUE);
+        } else {
+            pendingScan = scan;
+            FrameClock.requestFrame(scan);
+        }
+
+        if (currentQuery != null && ngramIndex == null && pendingIndex == null && source.getSize() >= INDEX_THRESHOLD) {
+            pendingIndex = new IndexBuild();
+            FrameClock.requestFrame(pendingIndex);
+        }
+    }
+
+    private void publish(int filterGeneration, String filterQuery, int[] matches) {
+        if (filterGeneration != generation) {
+            return;
+        }
+        appliedQuery = filterQuery;
+        pendingScan = null;
+        applyIndices(matches);
+    }
+
+    private int[] candidatesFor(String currentQuery) {
+        if (currentQuery == null) {
+            return null;
+        }
+        if (appliedQuery != null && indices != null && currentQuery.contains(appliedQuery)) {
+            return indices;
+        }
+        if (ngramIndex != null && ngramIndex.getRowCount() == source.getSize()) {
+            return ngramIndex.candidates(currentQuery);
+        }
+        return null;
+    }
+
+    private boolean accepts(E element, String lowerQuery, Predicate<? super E> rowPredicate) {
+        if (rowPredicate != null) {
+            return rowPredicate.test(element);
+        }
+        String text = element == null ? null : textFunction.apply(element);
+        return text != null && containsIgnoreCase(text, lowerQuery);
+    }
+
+    private void invalidateIndex() {
+        ngramIndex = null;
+        pendingIndex = null;
+    }
+
+    @Override
+    protected void sourceRowsInserted(int[] adjusted, int index0, int index1, int[] selected) {
+        boolean appended = index1 == source.getSize() - 1;
+        NGramIndex index = appended ? ngramIndex : null;
+        invalidateIndex();
+        if (isPending() || appliedQuery == null && predicate == null || index1 - index0 + 1 >= ASYNC_THRESHOLD) {
+            resync(adjusted, selected);
+            return;
+        }
+        int insertAt = lowerBound(adjusted, index0);
+        int[] matches = new int[index1 - index0 + 1];
+        int count = 0;
+        for (int row = index0; row <= index1; row++) {
+            E element = source.getElementAt(row);
+            if (accepts(element, appliedQuery, predicate)) {
+                matches[count++] = row;
+            }
+            if (index != null) {
+                String text = element == null ? null : textFunction.apply(element);
+                index.add(text == null ? "" : text);
+            }
+        }
+        ngramIndex = index;
+        if (count == 0) {
+            replaceIndices(adjusted);
+            return;
+        }
+        int[] merged = new int[adjusted.length + count];
+        int[] positions = new int[count];
+        System.arraycopy(adjusted, 0, merged, 0, insertAt);
+        System.arraycopy(matches, 0, merged, insertAt, count);
+        System.arraycopy(adjusted, insertAt, merged, insertAt + count, adjusted.length - insertAt);
+        for (int i = 0; i < count; i++) {
+            positions[i] = insertAt + i;
+        }
+        applyInsertions(merged, positions, count);
+    }
+
+    @Override
+    protected void sourceRowsRemoved(int[] adjusted, int index0, int index1, int[] selected) {
+        invalidateIndex();
+        if (isPending()) {
+            resync(adjusted, selected);
+            return;
+        }
+        int from = lowerBound(indices, index0);
+        int to = lowerBound(indices, index1 + 1);
+        int[] positions = new int[to - from];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = from + i;
+        }
+        applyRemovals(adjusted, positions, positions.length);
+    }
+
+    @Override
+    protected void sourceRowsChanged(int[] adjusted, int index0, int index1, int[] selected) {
+        invalidateIndex();
+        if (isPending() || appliedQuery == null && predicate == null || index1 - index0 + 1 >= ASYNC_THRESHOLD) {
+            resync(adjusted, selected);
+            return;
+        }
+        int from = lowerBound(adjusted, index0);
+        int to = lowerBound(adjusted, index1 + 1);
+        int[] matches = new int[index1 - index0 + 1];
+        int count = 0;
+        for (int row = index0; row <= index1; row++) {
+            if (accepts(source.getElementAt(row), appliedQuery, predicate)) {
+                matches[count++] = row;
+            }
+        }
+        boolean sameRows = count == to - from && adjusted.length == getSize();
+        for (int i = 0; sameRows && i < count; i++) {
+            sameRows = adjusted[from + i] == matches[i];
+        }
+        if (sameRows) {
+            replaceIndices(adjusted);
+            if (count > 0) {
+                fireContentsChanged(this, from, to - 1);
+            }
+            return;
+        }
+        int[] updated = new int[adjusted.length - (to - from) + count];
+        System.arraycopy(adjusted, 0, updated, 0, from);
+        System.arraycopy(matches, 0, updated, from, count);
+        System.arraycopy(adjusted, to, updated, from + count, adjusted.length - to);
+        applyIndices(updated, selected);
+    }
+
+    private static int lowerBound(int[] rows, int row) {
+        int position = Arrays.binarySearch(rows, row);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void resync(int[] adjusted, int[] selected) {
+        applyIndices(adjusted, selected);
+        appliedQuery = null;
+        refilter();
+    }
+
+    private final class Scan implements Runnable {
+        final int filterGeneration;
+        final int[] candidates;
+        final String lowerQuery;
+        final Predicate<? super E> rowPredicate;
+        final int count;
+        int[] matches;
+        int size;
+        int next;
+
+        Scan(int filterGeneration, int[] candidates, String lowerQuery, Predicate<? super E> rowPredicate) {
+            this.filterGeneration = filterGeneration;
+            this.candidates = candidates;
+            this.lowerQuery = lowerQuery;
+            this.rowPredicate = rowPredicate;
+            this.count = candidates == null ? source.getSize() : candidates.length;
+            this.matches = new int[Math.min(count, 1024)];
+        }
+
+        @Override
+        public void run() {
+            if (pendingScan == this && advance(FRAME_BUDGET_NANOS)) {
+                FrameClock.requestFrame(this);
+            }
+        }
+
+        // Returns true when rows are left once the budget is spent.
+        boolean advance(long budgetNanos) {
+            long start = System.nanoTime();
+            while (next < count) {
+                int row = candidates == null ? next : candidates[next];
+                if (accepts(source.getElementAt(row), lowerQuery, rowPredicate)) {
+                    if (size == matches.length) {
+                        matches = Arrays.copyOf(matches, Math.max(16, size * 2));
+                    }
+                    matches[size++] = row;
+                }
+                if (++next % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() - start >= budgetNanos) {
+                    return true;
+                }
+            }
+            publish(filterGeneration, lowerQuery, Arrays.copyOf(matches, size));
+            return false;
+        }
+    }
+
+    private final class IndexBuild implements Runnable {
+        final NGramIndex index = new NGramIndex();
+
+        @Override
+        public void run() {
+            if (pendingIndex != this) {
+                return;
+            }
+            long start = System.nanoTime();
+            int size = source.getSize();
+            for (int row = index.getRowCount(); row < size; row++) {
+                E element = source.getElementAt(row);
+                String text = element == null ? null : textFunction.apply(element);
+                index.add(text == null ? "" : text);
+                if ((row + 1) % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() - start >= FRAME_BUDGET_NANOS) {
+                    FrameClock.requestFrame(this);
+                    return;
+                }
+            }
+            ngramIndex = index;
+            pendingIndex = null;
+        }
+    }
+
+    static String lowerCase(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    static boolean containsIgnoreCase(String text, String lowerQuery) {
+        int queryLength = lowerQuery.length();
+        int last = text.length() - queryLength;
+        if (queryLength == 0) {
+            return true;
+        }
+        char first = lowerQuery.charAt(0);
+        for (int i = 0; i <= last; i++) {
+            if (Character.toLowerCase(text.charAt(i)) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < queryLength && Character.toLowerCase(text.charAt(i + j)) == lowerQuery.charAt(j)) {
+                j++;
+            }
+            if (j == queryLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,326 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Prerequisites are always created first, so index order is topological and
+// a change only re-checks the rules downstream of it.
+public final class FormValidator {
+    private enum State {
+        UNCHECKED,
+        VALID,
+        INVALID,
+        PENDING,
+        SKIPPED
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Map<JComponent, List<Rule>> readers = new IdentityHashMap<>();
+    private final List<Consumer<Boolean>> validityHandlers = new ArrayList<>();
+    private final BitSet dirty = new BitSet();
+    private int unresolved;
+    private boolean reportedValid = true;
+    private boolean scheduled;
+
+    private FormValidator() {
+    }
+
+    public static FormValidator create() {
+        return new FormValidator();
+    }
+
+    public Rule rule(String message, BooleanSupplier check, Component<?>... reads) {
+        return add(new Rule(message, check, null, null, reads));
+    }
+
+    public <T> Rule asyncRule(String message, Supplier<T> values, Predicate<T> check, Component<?>... reads) {
+        @SuppressWarnings("unchecked")
+        Supplier<Object> snapshot = (Supplier<Object>) values;
+        @SuppressWarnings("unchecked")
+        Predicate<Object> test = (Predicate<Object>) check;
+        return add(new Rule(message, null, snapshot, test, reads));
+    }
+
+    public FormValidator onValidityChange(Consumer<Boolean> handler) {
+        validityHandlers.add(handler);
+        return this;
+    }
+
+    public boolean isValid() {
+        return unresolved == 0;
+    }
+
+    public boolean isPending() {
+        for (Rule rule : rules) {
+            if (rule.state == State.PENDING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getErrors() {
+        List<String> errors = new ArrayList<>();
+        for (Rule rule : rules) {
+            if (rule.state == State.INVALID) {
+                errors.add(rule.message);
+            }
+        }
+        return errors;
+    }
+
+    public FormValidator validateAll() {
+        dirty.set(0, rules.size());
+        run();
+        return this;
+    }
+
+    private Rule add(Rule rule) {
+        rule.index = rules.size();
+        rules.add(rule);
+        unresolved++;
+        for (Component<?> component : rule.reads) {
+            JComponent swing = component instanceof ListBox
+                    ? ((ListBox<?>) component).list()
+                    : component.swingComponent;
+            List<Rule> list = readers.get(swing);
+            if (list == null) {
+                list = new ArrayList<>();
+                readers.put(swing, list);
+                listen(swing);
+            }
+            list.add(rule);
+        }
+        markDirty(rule);
+        return rule;
+    }
+
+    private void listen(JComponent swing) {
+        Runnable changed = () -> componentChanged(swing);
+        if (swing instanceof JTextComponent) {
+            DocumentListener listener = new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) {
+                    changed.run();
+                }
+
+                @Override
+                public void removeUpdate(DocumentEvent e) {
+                    changed.run();
+                }
+
+                @Override
+                public void changedUpdate(DocumentEvent e) {
+                }
+            };
+            ((JTextComponent) swing).getDocument().addDocumentListener(listener);
+            swing.addPropertyChangeListener("document", e -> {
+                if (e.getOldValue() instanceof Document) {
+                    ((Document) e.getOldValue()).removeDocumentListener(listener);
+                }
+                if (e.getNewValue() instanceof Document) {
+                    ((Document) e.getNewValue()).addDocumentListener(listener);
+                }
+                changed.run();
+            });
+        } else if (swing instanceof JComboBox) {
+            ((JComboBox<?>) swing).addActionListener(e -> changed.run());
+        } else if (swing instanceof JSpinner) {
+            ((JSpinner) swing).addChangeListener(e -> changed.run());
+        } else if (swing instanceof JSlider) {
+            ((JSlider) swing).addChangeListener(e -> changed.run());
+        } else if (swing instanceof AbstractButton) {
+            ((AbstractButton) swing).addItemListener(e -> changed.run());
+        } else if (swing instanceof JList) {
+            ((JList<?>) swing).addListSelectionListener(e -> {
+                if (!e.getValueIsAdjusting()) {
+                    changed.run();
+                }
+            });
+        }
+    }
+
+    private void componentChanged(JComponent swing) {
+        List<Rule> list = readers.get(swing);
+        if (list != null) {
+            list.forEach(this::markDirty);
+        }
+    }
+
+    // Edits are coalesced into one pass per event-queue turn, so a setText
+    // (remove + insert) or a burst of model events evaluates each rule once.
+    private void markDirty(Rule rule) {
+        dirty.set(rule.index);
+        if (!scheduled) {
+            scheduled = true;
+            SwingUtilities.invokeLater(this::run);
+        }
+    }
+
+    private void run() {
+        scheduled = false;
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            dirty.clear(i);
+            Rule rule = rules.get(i);
+            State previous = rule.state;
+            rule.evaluate();
+            if (rule.state != previous) {
+                rule.dependents.forEach(dependent -> dirty.set(dependent.index));
+            }
+        }
+        reportValidity();
+    }
+
+    private void reportValidity() {
+        boolean valid = isValid();
+        if (valid != reportedValid) {
+            reportedValid = valid;
+            validityHandlers.forEach(handler -> handler.accept(valid));
+        }
+    }
+
+    public final class Rule {
+        private final String message;
+        private final BooleanSupplier check;
+        private final Supplier<Object> snapshot;
+        private final Predicate<Object> asyncCheck;
+        private final Component<?>[] reads;
+        private final List<Rule> prerequisites = new ArrayList<>();
+        private final List<Rule> dependents = new ArrayList<>();
+        private final List<Consumer<Boolean>> resultHandlers = new ArrayList<>();
+        private State state = State.UNCHECKED;
+        private boolean shownInvalid;
+        private int index;
+        private int generation;
+        private Future<?> task;
+
+        private Rule(String message, BooleanSupplier check, Supplier<Object> snapshot, Predicate<Object> asyncCheck,
+                     Component<?>[] reads) {
+            this.message = message;
+            this.check = check;
+            this.snapshot = snapshot;
+            this.asyncCheck = asyncCheck;
+            this.reads = reads.clone();
+        }
+
+        // Only rules created earlier can be prerequisites, which keeps the graph acyclic.
+        public Rule after(Rule... rules) {
+            for (Rule rule : rules) {
+                if (rule != null && rule != this && rule.owner() == FormValidator.this && rule.index < index
+                        && !prerequisites.contains(rule)) {
+                    prerequisites.add(rule);
+                    rule.dependents.add(this);
+                }
+            }
+            markDirty(this);
+            return this;
+        }
+
+        public Rule onResult(Consumer<Boolean> handler) {
+            resultHandlers.add(handler);
+            return this;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public boolean isValid() {
+            return state == State.VALID;
+        }
+
+        public boolean isPending() {
+            return state == State.PENDING;
+        }
+
+        private FormValidator owner() {
+            return FormValidator.this;
+        }
+
+        private void evaluate() {
+            generation++;
+            BackgroundTasks.cancel(task);
+            task = null;
+            for (Rule prerequisite : prerequisites) {
+                if (prerequisite.state != State.VALID) {
+                    setState(State.SKIPPED);
+                    return;
+                }
+            }
+            if (check != null) {
+                boolean passed;
+                try {
+                    passed = check.getAsBoolean();
+                } catch (RuntimeException e) {
+                    passed = false;
+                }
+                setState(passed ? State.VALID : State.INVALID);
+                return;
+            }
+            Object values;
+            try {
+                values = snapshot.get();
+            } catch (RuntimeException e) {
+                setState(State.INVALID);
+                return;
+            }
+            int taskGeneration = generation;
+            setState(State.PENDING);
+            task = BackgroundTasks.submit(() -> {
+                boolean passed;
+                try {
+                    passed = asyncCheck.test(values);
+                } catch (RuntimeException e) {
+                    passed = false;
+                }
+                boolean result = passed;
+                if (!Thread.currentThread().isInterrupted()) {
+                    SwingUtilities.invokeLater(() -> finished(taskGeneration, result));
+                }
+            });
+        }
+
+        private void finished(int taskGeneration, boolean passed) {
+            if (taskGeneration != generation || state != State.PENDING) {
+                return;
+            }
+            task = null;
+            setState(passed ? State.VALID : State.INVALID);
+            if (dependents.isEmpty()) {
+                reportValidity();
+            } else {
+                dependents.forEach(FormValidator.this::markDirty);
+            }
+        }
+
+        private void setState(State next) {
+            if (next == state) {
+                return;
+            }
+            boolean wasResolved = state == State.VALID || state == State.SKIPPED;
+            boolean resolved = next == State.VALID || next == State.SKIPPED;
+            if (wasResolved != resolved) {
+                unresolved += resolved ? -1 : 1;
+            }
+            state = next;
+            if (next != State.PENDING && shownInvalid != (next == State.INVALID)) {
+                shownInvalid = next == State.INVALID;
+                boolean valid = !shownInvalid;
+                resultHandlers.forEach(handler -> handler.accept(valid));
+            }
+        }
+    }
+}
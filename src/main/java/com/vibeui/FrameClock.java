@@ -0,0 +1,45 @@
+package com.vibeui;
+
+import javax.swing.Timer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class FrameClock {
+    static final int FRAME_MILLIS = 16;
+
+    private static final Queue<Runnable> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+    private static final Timer TIMER = new Timer(FRAME_MILLIS, e -> tick());
+
+    static {
+        TIMER.setCoalesce(true);
+    }
+
+    private FrameClock() {
+    }
+
+    static void requestFrame(Runnable task) {
+        PENDING.add(task);
+        if (RUNNING.compareAndSet(false, true)) {
+            TIMER.start();
+        }
+    }
+
+    private static void tick() {
+        for (int remaining = PENDING.size(); remaining > 0; remaining--) {
+            Runnable task = PENDING.poll();
+            if (task == null) {
+                break;
+            }
+            task.run();
+        }
+        if (PENDING.isEmpty()) {
+            TIMER.stop();
+            RUNNING.set(false);
+            if (!PENDING.isEmpty() && RUNNING.compareAndSet(false, true)) {
+                TIMER.start();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.vibeui;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+final class IndexSorter {
+    static final int PARALLEL_THRESHOLD = 8192;
+    private static final int INSERTION_THRESHOLD = 16;
+
+    @FunctionalInterface
+    interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    private IndexSorter() {
+    }
+
+    static void sort(int[] indices, IndexComparator comparator) {
+        sort(indices, 0, indices.length, comparator);
+    }
+
+    static void sort(int[] indices, int from, int to, IndexComparator comparator) {
+        int[] scratch = indices.clone();
+        if (to - from >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new SortTask(scratch, indices, from, to, comparator));
+        } else {
+            mergeSort(scratch, indices, from, to, comparator);
+        }
+    }
+
+    static int upperBound(int[] indices, int size, int row, IndexComparator comparator) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(indices[mid], row) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static int[] merge(int[] left, int[] right, IndexComparator comparator, int[] rightPositions) {
+        int[] merged = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (comparator.compare(left[i], right[j]) <= 0) {
+                merged[k++] = left[i++];
+            } else {
+                rightPositions[j] = k;
+                merged[k++] = right[j++];
+            }
+        }
+        while (i < left.length) {
+            merged[k++] = left[i++];
+        }
+        while (j < right.length) {
+            rightPositions[j] = k;
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+    private static void mergeSort(int[] src, int[] dest, int low, int high, IndexComparator comparator) {
+        if (high - low < INSERTION_THRESHOLD) {
+            insertionSort(dest, low, high, comparator);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, comparator);
+        mergeSort(dest, src, mid, high, comparator);
+        mergeHalves(src, dest, low, mid, high, comparator);
+    }
+
+    private static void insertionSort(int[] values, int low, int high, IndexComparator comparator) {
+        for (int i = low + 1; i < high; i++) {
+            int value = values[i];
+            int j = i - 1;
+            while (j >= low && comparator.compare(values[j], value) > 0) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+
+    private static void mergeHalves(int[] src, int[] dest, int low, int mid, int high, IndexComparator comparator) {
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+        int p = low;
+        int q = mid;
+        for (int i = low; i < high; i++) {
+            if (q >= high || p < mid && comparator.compare(src[p], src[q]) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class SortTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dest;
+        private final int low;
+        private final int high;
+        private final IndexComparator comparator;
+
+        SortTask(int[] src, int[] dest, int low, int high, IndexComparator comparator) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low < PARALLEL_THRESHOLD) {
+                mergeSort(src, dest, low, high, comparator);
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            invokeAll(new SortTask(dest, src, low, mid, comparator),
+                    new SortTask(dest, src, mid, high, comparator));
+            mergeHalves(src, dest, low, mid, high, comparator);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.vibeui;
+
+import java.util.Arrays;
+
+class IntervalSet {
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int count;
+    private long size;
+
+    IntervalSet() {
+    }
+
+    IntervalSet(IntervalSet other) {
+        this.starts = Arrays.copyOf(other.starts, Math.max(8, other.count));
+        this.ends = Arrays.copyOf(other.ends, Math.max(8, other.count));
+        this.count = other.count;
+        this.size = other.size;
+    }
+
+    int intervalCount() {
+        return count;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    int start(int interval) {
+        return starts[interval];
+    }
+
+    int end(int interval) {
+        return ends[interval];
+    }
+
+    int min() {
+        return count == 0 ? -1 : starts[0];
+    }
+
+    int max() {
+        return count == 0 ? -1 : ends[count - 1];
+    }
+
+    boolean contains(int index) {
+        int interval = lastStartingAtOrBefore(index);
+        return interval >= 0 && ends[interval] >= index;
+    }
+
+    boolean add(int from, int to) {
+        if (from > to) {
+            return false;
+        }
+        int first = firstEndingAtOrAfter(from - 1);
+        int last = lastStartingAtOrBefore(to + 1);
+        if (first <= last) {
+            if (first == last && starts[first] <= from && ends[first] >= to) {
+                return false;
+            }
+            int mergedStart = Math.min(from, starts[first]);
+            int mergedEnd = Math.max(to, ends[last]);
+            for (int i = first; i <= last; i++) {
+                size -= (long) ends[i] - starts[i] + 1;
+            }
+            starts[first] = mergedStart;
+            ends[first] = mergedEnd;
+            size += (long) mergedEnd - mergedStart + 1;
+            removeSlots(first + 1, last + 1);
+        } else {
+            insertSlot(first, from, to);
+            size += (long) to - from + 1;
+        }
+        return true;
+    }
+
+    boolean remove(int from, int to) {
+        if (from > to || count == 0) {
+            return false;
+        }
+        int first = firstEndingAtOrAfter(from);
+        int last = lastStartingAtOrBefore(to);
+        if (first > last) {
+            return false;
+        }
+        int firstStart = starts[first];
+        int lastEnd = ends[last];
+        for (int i = first; i <= last; i++) {
+            size -= (long) ends[i] - starts[i] + 1;
+        }
+        removeSlots(first, last + 1);
+        int slot = first;
+        if (firstStart < from) {
+            insertSlot(slot++, firstStart, from - 1);
+            size += (long) from - firstStart;
+        }
+        if (lastEnd > to) {
+            insertSlot(slot, to + 1, lastEnd);
+            size += (long) lastEnd - to;
+        }
+        return true;
+    }
+
+    void clear() {
+        count = 0;
+        size = 0;
+    }
+
+    void insertGap(int index, int length) {
+        int interval = lastStartingAtOrBefore(index - 1);
+        if (interval >= 0 && ends[interval] >= index) {
+            int end = ends[interval];
+            ends[interval] = index - 1;
+            insertSlot(interval + 1, index, end);
+        }
+        for (int i = 0; i < count; i++) {
+            if (starts[i] >= index) {
+                starts[i] += length;
+                ends[i] += length;
+            }
+        }
+    }
+
+    void closeGap(int from, int to) {
+        remove(from, to);
+        int length = to - from + 1;
+        int write = 0;
+        for (int read = 0; read < count; read++) {
+            int start = starts[read];
+            int end = ends[read];
+            if (start > to) {
+                start -= length;
+                end -= length;
+            }
+            if (write > 0 && ends[write - 1] + 1 >= start) {
+                ends[write - 1] = Math.max(ends[write - 1], end);
+            } else {
+                starts[write] = start;
+                ends[write] = end;
+                write++;
+            }
+        }
+        count = write;
+    }
+
+    int[][] toArray() {
+        int[][] ranges = new int[count][];
+        for (int i = 0; i < count; i++) {
+            ranges[i] = new int[] {starts[i], ends[i]};
+        }
+        return ranges;
+    }
+
+    static int[][] symmetricDifference(IntervalSet a, IntervalSet b) {
+        IntervalSet changed = new IntervalSet(a);
+        for (int i = 0; i < b.count; i++) {
+            changed.add(b.starts[i], b.ends[i]);
+        }
+        IntervalSet common = new IntervalSet(a);
+        int position = 0;
+        for (int i = 0; i < b.count; i++) {
+            common.remove(position, b.starts[i] - 1);
+            position = b.ends[i] + 1;
+        }
+        common.remove(position, Integer.MAX_VALUE - 1);
+        for (int i = 0; i < common.count; i++) {
+            changed.remove(common.starts[i], common.ends[i]);
+        }
+        return changed.toArray();
+    }
+
+    private int firstEndingAtOrAfter(int index) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lastStartingAtOrBefore(int index) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    private void insertSlot(int slot, int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        System.arraycopy(starts, slot, starts, slot + 1, count - slot);
+        System.arraycopy(ends, slot, ends, slot + 1, count - slot);
+        starts[slot] = start;
+        ends[slot] = end;
+        count++;
+    }
+
+    private void removeSlots(int from, int to) {
+        System.arraycopy(starts, to, starts, from, count - to);
+        System.arraycopy(ends, to, ends, from, count - to);
+        count -= to - from;
+    }
+}
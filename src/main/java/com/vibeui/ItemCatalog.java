@@ -0,0 +1,105 @@
+package com.vibeui;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class ItemCatalog<T> {
+    private static final int MIN_PURGE_THRESHOLD = 16;
+
+    final List<T> items;
+    final ItemIndex index;
+    private final List<WeakReference<ItemListModel<T>>> views = new ArrayList<>();
+    private final ItemListModel<T> store;
+    private int purgeThreshold = MIN_PURGE_THRESHOLD;
+
+    private ItemCatalog(List<T> items) {
+        this.items = items;
+        this.index = new ItemIndex(items);
+        this.store = new ItemListModel<>(this);
+    }
+
+    public static <T> ItemCatalog<T> of(List<? extends T> items) {
+        return new ItemCatalog<>(new ArrayList<>(items));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> ItemCatalog<T> of(T... items) {
+        return of(Arrays.asList(items));
+    }
+
+    public static <T> ItemCatalog<T> empty() {
+        return new ItemCatalog<>(new ArrayList<>());
+    }
+
+    public ItemCatalog<T> add(T item) {
+        store.add(item);
+        return this;
+    }
+
+    public ItemCatalog<T> addAll(List<? extends T> newItems) {
+        store.addAll(newItems);
+        return this;
+    }
+
+    public ItemCatalog<T> remove(T item) {
+        store.removeItem(item);
+        return this;
+    }
+
+    public ItemCatalog<T> setAll(List<? extends T> newItems) {
+        store.setAll(newItems);
+        return this;
+    }
+
+    public ItemCatalog<T> clear() {
+        store.clear();
+        return this;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public T get(int position) {
+        return items.get(position);
+    }
+
+    public int indexOf(T item) {
+        return store.indexOf(item);
+    }
+
+    public boolean contains(T item) {
+        return store.contains(item);
+    }
+
+    public List<T> snapshot() {
+        return store.snapshot();
+    }
+
+    public int viewCount() {
+        views.removeIf(view -> view.get() == null);
+        return views.size() - 1;
+    }
+
+    void attach(ItemListModel<T> view) {
+        if (views.size() >= purgeThreshold) {
+            views.removeIf(ref -> ref.get() == null);
+            purgeThreshold = Math.max(MIN_PURGE_THRESHOLD, views.size() * 2);
+        }
+        views.add(new WeakReference<>(view));
+    }
+
+    @SuppressWarnings("unchecked")
+    void fire(int type, int index0, int index1) {
+        Object[] targets = views.toArray();
+        for (Object target : targets) {
+            ItemListModel<T> view = ((WeakReference<ItemListModel<T>>) target).get();
+            if (view != null) {
+                view.deliver(type, index0, index1);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+@SuppressWarnings("serial")
+class ItemComboBoxModel<E> extends ItemListModel<E> implements MutableComboBoxModel<E> {
+    private Object selectedItem;
+
+    ItemComboBoxModel() {
+        this(new ArrayList<>());
+    }
+
+    ItemComboBoxModel(List<E> items) {
+        super(items, true);
+        if (!items.isEmpty()) {
+            selectedItem = items.get(0);
+        }
+    }
+
+    ItemComboBoxModel(ItemCatalog<E> catalog) {
+        super(catalog);
+        if (!items.isEmpty()) {
+            selectedItem = items.get(0);
+        }
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (!Objects.equals(selectedItem, item)) {
+            selectedItem = item;
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selectedItem;
+    }
+
+    @Override
+    public void addElement(E item) {
+        add(item);
+        if (items.size() == 1 && selectedItem == null && item != null) {
+            setSelectedItem(item);
+        }
+    }
+
+    @Override
+    void addAll(int position, Collection<? extends E> newItems) {
+        boolean wasEmpty = items.isEmpty();
+        super.addAll(position, newItems);
+        if (wasEmpty && selectedItem == null && !items.isEmpty()) {
+            setSelectedItem(items.get(0));
+        }
+    }
+
+    @Override
+    protected void itemsReplaced() {
+        if (!contains(selectedItem)) {
+            selectedItem = items.isEmpty() ? null : items.get(0);
+        }
+    }
+
+    @Override
+    void sharedItemsChanged(int type, int index0, int index1) {
+        if (selectedItem != null && !contains(selectedItem)) {
+            selectedItem = items.isEmpty() ? null : items.get(0);
+        } else if (selectedItem == null && type == ListDataEvent.INTERVAL_ADDED && index1 - index0 + 1 == items.size()) {
+            selectedItem = items.get(0);
+        }
+    }
+
+    @Override
+    public void insertElementAt(E item, int index) {
+        add(index, item);
+    }
+
+    @Override
+    public void removeElement(Object item) {
+        int index = indexOf(item);
+        if (index >= 0) {
+            removeElementAt(index);
+        }
+    }
+
+    @Override
+    public void removeElementAt(int index) {
+        if (Objects.equals(items.get(index), selectedItem)) {
+            if (index == 0) {
+                setSelectedItem(items.size() == 1 ? null : items.get(1));
+            } else {
+                setSelectedItem(items.get(index - 1));
+            }
+        }
+        remove(index);
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        selectedItem = null;
+    }
+}
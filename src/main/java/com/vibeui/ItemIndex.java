@@ -0,0 +1,165 @@
+package com.vibeui;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ItemIndex {
+    private static final int MAX_PENDING_SHIFTS = 64;
+
+    private final List<?> items;
+    private final Map<Object, Entry> entries = new HashMap<>();
+    private final int[] shiftPositions = new int[MAX_PENDING_SHIFTS];
+    private final int[] shiftCounts = new int[MAX_PENDING_SHIFTS];
+    private int shiftCount;
+
+    ItemIndex(List<?> items) {
+        this.items = items;
+        reset();
+    }
+
+    boolean contains(Object item) {
+        return entries.containsKey(item);
+    }
+
+    int indexOf(Object item) {
+        Entry entry = entries.get(item);
+        return entry == null ? -1 : resolve(entry);
+    }
+
+    void inserted(int index, int count) {
+        recordShift(index, count);
+        for (int i = index; i < index + count; i++) {
+            Object item = items.get(i);
+            Entry entry = entries.get(item);
+            if (entry == null) {
+                entries.put(item, new Entry(item, i, shiftCount));
+            } else {
+                entry.count++;
+                if (i < resolve(entry)) {
+                    entry.moveTo(i, shiftCount);
+                }
+            }
+        }
+    }
+
+    void removing(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i <= toIndex; i++) {
+            Entry entry = entries.get(items.get(i));
+            if (entry == null) {
+                continue;
+            }
+            int first = resolve(entry);
+            if (--entry.count == 0) {
+                entries.remove(entry.item);
+            } else if (first >= fromIndex && first <= toIndex) {
+                entry.moveTo(-1, shiftCount);
+            }
+        }
+        recordShift(fromIndex, -(toIndex - fromIndex + 1));
+    }
+
+    void replacing(int index, Object item) {
+        Entry previous = entries.get(items.get(index));
+        if (previous != null) {
+            int first = resolve(previous);
+            if (--previous.count == 0) {
+                entries.remove(previous.item);
+            } else if (first == index) {
+                previous.moveTo(-1, shiftCount);
+            }
+        }
+        Entry entry = entries.get(item);
+        if (entry == null) {
+            entries.put(item, new Entry(item, index, shiftCount));
+        } else {
+            entry.count++;
+            int first = resolve(entry);
+            if (first < 0 || index < first) {
+                entry.moveTo(index, shiftCount);
+            }
+        }
+    }
+
+    void reset() {
+        entries.clear();
+        shiftCount = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Object item = items.get(i);
+            Entry entry = entries.get(item);
+            if (entry == null) {
+                entries.put(item, new Entry(item, i, 0));
+            } else {
+                entry.count++;
+            }
+        }
+    }
+
+    private int resolve(Entry entry) {
+        int position = entry.position;
+        for (int k = entry.shift; k < shiftCount && position >= 0; k++) {
+            int at = shiftPositions[k];
+            int delta = shiftCounts[k];
+            if (delta > 0 && position >= at) {
+                position += delta;
+            } else if (delta < 0 && position >= at - delta) {
+                position += delta;
+            } else if (delta < 0 && position >= at) {
+                position = -1;
+            }
+        }
+        if (position < 0) {
+            position = items.indexOf(entry.item);
+        }
+        entry.moveTo(position, shiftCount);
+        return position;
+    }
+
+    private void recordShift(int index, int delta) {
+        if (shiftCount == MAX_PENDING_SHIFTS) {
+            if (delta > 0) {
+                reindex(index, index + delta);
+                return;
+            }
+            reindex(0, 0);
+        }
+        shiftPositions[shiftCount] = index;
+        shiftCounts[shiftCount] = delta;
+        shiftCount++;
+    }
+
+    private void reindex(int skipFrom, int skipTo) {
+        for (Entry entry : entries.values()) {
+            entry.moveTo(-1, 0);
+        }
+        shiftCount = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (i == skipFrom && skipFrom < skipTo) {
+                i = skipTo - 1;
+                continue;
+            }
+            Entry entry = entries.get(items.get(i));
+            if (entry != null && entry.position < 0) {
+                entry.position = i;
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Object item;
+        int count = 1;
+        int position;
+        int shift;
+
+        Entry(Object item, int position, int shift) {
+            this.item = item;
+            this.position = position;
+            this.shift = shift;
+        }
+
+        void moveTo(int position, int shift) {
+            this.position = position;
+            this.shift = shift;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+@SuppressWarnings("serial")
+class ItemListModel<E> extends AbstractListModel<E> {
+    protected final List<E> items;
+    private final ItemIndex index;
+    private final ItemCatalog<E> catalog;
+
+    ItemListModel() {
+        this(new ArrayList<>());
+    }
+
+    ItemListModel(List<E> items) {
+        this(items, false);
+    }
+
+    ItemListModel(List<E> items, boolean indexed) {
+        this(items, indexed ? new ItemIndex(items) : null, null);
+    }
+
+    ItemListModel(ItemCatalog<E> catalog) {
+        this(catalog.items, catalog.index, catalog);
+        catalog.attach(this);
+    }
+
+    private ItemListModel(List<E> items, ItemIndex index, ItemCatalog<E> catalog) {
+        this.items = items;
+        this.index = index;
+        this.catalog = catalog;
+    }
+
+    @Override
+    public int getSize() {
+        return items.size();
+    }
+
+    @Override
+    public E getElementAt(int index) {
+        return items.get(index);
+    }
+
+    int indexOf(Object item) {
+        return index != null ? index.indexOf(item) : items.indexOf(item);
+    }
+
+    boolean contains(Object item) {
+        return index != null ? index.contains(item) : items.contains(item);
+    }
+
+    List<E> snapshot() {
+        return new ArrayList<>(items);
+    }
+
+    void add(E item) {
+        add(items.size(), item);
+    }
+
+    void add(int position, E item) {
+        items.add(position, item);
+        if (index != null) {
+            index.inserted(position, 1);
+        }
+        fireIntervalAdded(this, position, position);
+    }
+
+    void addAll(Collection<? extends E> newItems) {
+        addAll(items.size(), newItems);
+    }
+
+    void addAll(int position, Collection<? extends E> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        items.addAll(position, newItems);
+        if (index != null) {
+            index.inserted(position, newItems.size());
+        }
+        fireIntervalAdded(this, position, position + newItems.size() - 1);
+    }
+
+    void set(int position, E item) {
+        if (index != null) {
+            index.replacing(position, item);
+        }
+        items.set(position, item);
+        fireContentsChanged(this, position, position);
+    }
+
+    void setRange(int position, List<? extends E> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < newItems.size(); i++) {
+            if (index != null) {
+                index.replacing(position + i, newItems.get(i));
+            }
+            items.set(position + i, newItems.get(i));
+        }
+        fireContentsChanged(this, position, position + newItems.size() - 1);
+    }
+
+    void update(List<? extends E> newItems) {
+        List<ListDiff.Hunk> hunks = ListDiff.compute(items, newItems);
+        for (int i = hunks.size() - 1; i >= 0; i--) {
+            ListDiff.Hunk hunk = hunks.get(i);
+            int common = Math.min(hunk.oldLength(), hunk.newLength());
+            setRange(hunk.oldStart, newItems.subList(hunk.newStart, hunk.newStart + common));
+            if (hunk.oldLength() > common) {
+                removeRange(hunk.oldStart + common, hunk.oldEnd - 1);
+            } else if (hunk.newLength() > common) {
+                addAll(hunk.oldStart + common, newItems.subList(hunk.newStart + common, hunk.newEnd));
+            }
+        }
+    }
+
+    E remove(int position) {
+        if (index != null) {
+            index.removing(position, position);
+        }
+        E removed = items.remove(position);
+        fireIntervalRemoved(this, position, position);
+        return removed;
+    }
+
+    boolean removeItem(Object item) {
+        int position = indexOf(item);
+        if (position < 0) {
+            return false;
+        }
+        remove(position);
+        return true;
+    }
+
+    void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            return;
+        }
+        if (index != null) {
+            index.removing(fromIndex, toIndex);
+        }
+        items.subList(fromIndex, toIndex + 1).clear();
+        fireIntervalRemoved(this, fromIndex, toIndex);
+    }
+
+    void replaceAll(UnaryOperator<E> operator) {
+        if (items.isEmpty()) {
+            return;
+        }
+        items.replaceAll(operator);
+        if (index != null) {
+            index.reset();
+        }
+        fireContentsChanged(this, 0, items.size() - 1);
+    }
+
+    void setAll(Collection<? extends E> newItems) {
+        int oldSize = items.size();
+        items.clear();
+        items.addAll(newItems);
+        if (index != null) {
+            index.reset();
+        }
+        itemsReplaced();
+        int size = items.size();
+        if (size > oldSize) {
+            fireIntervalAdded(this, oldSize, size - 1);
+        } else if (size < oldSize) {
+            fireIntervalRemoved(this, size, oldSize - 1);
+        }
+        int common = Math.min(oldSize, size);
+        if (common > 0) {
+            fireContentsChanged(this, 0, common - 1);
+        }
+    }
+
+    protected void itemsReplaced() {
+    }
+
+    void sharedItemsChanged(int type, int index0, int index1) {
+    }
+
+    void deliver(int type, int index0, int index1) {
+        sharedItemsChanged(type, index0, index1);
+        if (type == ListDataEvent.INTERVAL_ADDED) {
+            super.fireIntervalAdded(this, index0, index1);
+        } else if (type == ListDataEvent.INTERVAL_REMOVED) {
+            super.fireIntervalRemoved(this, index0, index1);
+        } else {
+            super.fireContentsChanged(this, index0, index1);
+        }
+    }
+
+    @Override
+    protected void fireIntervalAdded(Object source, int index0, int index1) {
+        if (catalog != null) {
+            catalog.fire(ListDataEvent.INTERVAL_ADDED, index0, index1);
+        } else {
+            super.fireIntervalAdded(source, index0, index1);
+        }
+    }
+
+    @Override
+    protected void fireIntervalRemoved(Object source, int index0, int index1) {
+        if (catalog != null) {
+            catalog.fire(ListDataEvent.INTERVAL_REMOVED, index0, index1);
+        } else {
+            super.fireIntervalRemoved(source, index0, index1);
+        }
+    }
+
+    @Override
+    protected void fireContentsChanged(Object source, int index0, int index1) {
+        if (catalog != null && index0 >= 0) {
+            catalog.fire(ListDataEvent.CONTENTS_CHANGED, index0, index1);
+        } else {
+            super.fireContentsChanged(source, index0, index1);
+        }
+    }
+
+    void clear() {
+        int oldSize = items.size();
+        if (oldSize == 0) {
+            return;
+        }
+        items.clear();
+        if (index != null) {
+            index.reset();
+        }
+        fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+}
@@ -0,0 +1,258 @@
+package com.vibeui;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.undo.AbstractUndoableEdit;
+
+@SuppressWarnings("serial")
+class LargeTextDocument extends AbstractDocument {
+    private final PieceTableContent content;
+    private final LineRoot root = new LineRoot();
+    private int removedLine;
+    private int removedLineCount;
+
+    LargeTextDocument() {
+        this(new PieceTableContent());
+    }
+
+    private LargeTextDocument(PieceTableContent content) {
+        super(content);
+        this.content = content;
+        putProperty(PlainDocument.tabSizeAttribute, 8);
+    }
+
+    int getLineCount() {
+        return root.getElementCount();
+    }
+
+    int getLineStartOffset(int line) {
+        return content.lineStart(line);
+    }
+
+    int getLineOfOffset(int offset) {
+        return content.lineOfOffset(offset);
+    }
+
+    @Override
+    public Element getDefaultRootElement() {
+        return root;
+    }
+
+    @Override
+    public Element getParagraphElement(int pos) {
+        return root.getElement(root.getElementIndex(pos));
+    }
+
+    @Override
+    protected void insertUpdate(DefaultDocumentEvent chng, AttributeSet attr) {
+        int offset = chng.getOffset();
+        int added = content.newlinesBetween(offset, offset + chng.getLength());
+        if (added > 0) {
+            int line = content.lineOfOffset(offset);
+            chng.addEdit(new LineChange(line, lines(line, 1), lines(line, added + 1)));
+        }
+        super.insertUpdate(chng, attr);
+    }
+
+    @Override
+    protected void removeUpdate(DefaultDocumentEvent chng) {
+        int offset = chng.getOffset();
+        removedLineCount = content.newlinesBetween(offset, offset + chng.getLength());
+        removedLine = content.lineOfOffset(offset);
+        super.removeUpdate(chng);
+    }
+
+    @Override
+    protected void postRemoveUpdate(DefaultDocumentEvent chng) {
+        if (removedLineCount > 0) {
+            chng.addEdit(new LineChange(removedLine, lines(removedLine, removedLineCount + 1), lines(removedLine, 1)));
+        }
+        removedLineCount = 0;
+        super.postRemoveUpdate(chng);
+    }
+
+    private Element[] lines(int first, int count) {
+        Element[] lines = new Element[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = new LineElement(first + i);
+        }
+        return lines;
+    }
+
+    private final class LineRoot implements Element {
+        @Override
+        public javax.swing.text.Document getDocument() {
+            return LargeTextDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return SectionElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return 0;
+        }
+
+        @Override
+        public int getEndOffset() {
+            return content.length();
+        }
+
+        @Override
+        public int getElementIndex(int offset) {
+            return Math.min(content.lineOfOffset(Math.max(0, Math.min(offset, content.length() - 1))),
+                    getElementCount() - 1);
+        }
+
+        @Override
+        public int getElementCount() {
+            return Math.max(1, content.lineCount());
+        }
+
+        @Override
+        public Element getElement(int index) {
+            return index >= 0 && index < getElementCount() ? new LineElement(index) : null;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+    }
+
+    private final class LineElement implements Element {
+        private final int line;
+
+        LineElement(int line) {
+            this.line = line;
+        }
+
+        @Override
+        public javax.swing.text.Document getDocument() {
+            return LargeTextDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return root;
+        }
+
+        @Override
+        public String getName() {
+            return ParagraphElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return Math.min(content.lineStart(line), content.length());
+        }
+
+        @Override
+        public int getEndOffset() {
+            return Math.min(content.lineStart(line + 1), content.length());
+        }
+
+        @Override
+        public int getElementIndex(int offset) {
+            return -1;
+        }
+
+        @Override
+        public int getElementCount() {
+            return 0;
+        }
+
+        @Override
+        public Element getElement(int index) {
+            return null;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof LineElement && ((LineElement) other).line == line;
+        }
+
+        @Override
+        public int hashCode() {
+            return line;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class LineChange extends AbstractUndoableEdit implements DocumentEvent.ElementChange {
+        private final int index;
+        private Element[] removed;
+        private Element[] added;
+
+        LineChange(int index, Element[] removed, Element[] added) {
+            this.index = index;
+            this.removed = removed;
+            this.added = added;
+        }
+
+        @Override
+        public Element getElement() {
+            return root;
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public Element[] getChildrenRemoved() {
+            return removed;
+        }
+
+        @Override
+        public Element[] getChildrenAdded() {
+            return added;
+        }
+
+        @Override
+        public void undo() {
+            super.undo();
+            swap();
+        }
+
+        @Override
+        public void redo() {
+            super.redo();
+            swap();
+        }
+
+        private void swap() {
+            Element[] previous = removed;
+            removed = added;
+            added = previous;
+        }
+    }
+}
@@ -4,54 +4,200 @@ import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
+import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
-
-public class ListBox extends Component<ListBox> {
-    private JList<String> listBox;
-    private DefaultListModel<String> listModel;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+public class ListBox<T> extends Component<ListBox<T>> {
+    private static final String ROW_PROTOTYPE = "X".repeat(48);
+    private static final String LOADING_PLACEHOLDER = "Loading...";
+
+    private JList<T> listBox;
+    private ListModel<T> listModel;
+    private ListModel<T> baseModel;
+    private ItemListModel<T> itemModel;
+    private SortedListModel<T> sortModel;
+    private FilteredListModel<T> filterModel;
+    private RingBufferListModel<T> streamModel;
+    private final Queue<T> pendingAppends = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private boolean followTail;
     private JScrollPane scrollPane;
-    private Consumer<String> selectionHandler;
-    private Consumer<List<String>> multiSelectionHandler;
+    private ProjectionCellRenderer<T> renderer;
+    private final RangeSelectionModel selectionModel = new RangeSelectionModel();
+    private Consumer<T> selectionHandler;
+    private Consumer<List<T>> multiSelectionHandler;
     private Consumer<Integer> indexSelectionHandler;
+    private Consumer<int[][]> rangeSelectionHandler;
 
-    private ListBox(String[] items) {
-        super(createScrollableList(items));
-        initializeComponents();
+    private ListBox(ListModel<T> model, Function<? super T, String> projection) {
+        super(new JScrollPane(new JList<>(model)));
+        initializeComponents(projection);
         setupEventHandlers();
     }
 
-    private ListBox(List<String> items) {
-        this(items.toArray(new String[0]));
+    private static <T> ItemListModel<T> itemsOf(List<T> items) {
+        ItemListModel<T> model = new ItemListModel<>();
+        model.addAll(items);
+        return model;
     }
 
-    private static JScrollPane createScrollableList(String[] items) {
-        DefaultListModel<String> model = new DefaultListModel<>();
-        for (String item : items) {
-            model.addElement(item);
-        }
-        JList<String> list = new JList<>(model);
-        return new JScrollPane(list);
+    JList<T> list() {
+        return listBox;
     }
 
-    private void initializeComponents() {
+    @SuppressWarnings("unchecked")
+    private void initializeComponents(Function<? super T, String> projection) {
         this.scrollPane = (JScrollPane) swingComponent;
-        this.listBox = (JList<String>) scrollPane.getViewport().getView();
-        this.listModel = (DefaultListModel<String>) listBox.getModel();
+        this.listBox = (JList<T>) scrollPane.getViewport().getView();
+        this.listModel = listBox.getModel();
+        this.baseModel = listModel;
+        if (listModel instanceof ItemListModel) {
+            this.itemModel = (ItemListModel<T>) listModel;
+        } else if (listModel instanceof RingBufferListModel) {
+            this.streamModel = (RingBufferListModel<T>) listModel;
+        }
+        this.renderer = new ProjectionCellRenderer<>(listBox.getCellRenderer(), projection);
+        renderer.attach(listModel);
+        listBox.setCellRenderer(renderer);
+    }
+
+    private void replaceViews(SortedListModel<T> sorted, FilteredListModel<T> filtered) {
+        int[] selected = listBox.getSelectedIndices();
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = toModelIndex(selected[i]);
+        }
+        if (sortModel != null && sortModel != sorted) {
+            sortModel.dispose();
+        }
+        if (filterModel != null && filterModel != filtered) {
+            filterModel.dispose();
+        }
+        sortModel = sorted;
+        filterModel = filtered;
+        listModel = filtered != null ? filtered : sorted != null ? sorted : baseModel;
+        if (sorted != null) {
+            sorted.bindSelection(filtered == null ? listBox : null);
+        }
+        if (filtered != null) {
+            filtered.bindSelection(listBox);
+        }
+        listBox.setModel(listModel);
+        renderer.attach(listModel);
+
+        int count = 0;
+        for (int modelIndex : selected) {
+            int viewIndex = toViewIndex(modelIndex);
+            if (viewIndex >= 0) {
+                selected[count++] = viewIndex;
+            }
+        }
+        listBox.setSelectedIndices(Arrays.copyOf(selected, count));
+    }
+
+    private FilteredListModel<T> filterView() {
+        if (filterModel == null) {
+            replaceViews(sortModel, new FilteredListModel<>(sortModel != null ? sortModel : baseModel, renderer::textOf));
+        }
+        return filterModel;
+    }
+
+    private ListBox<T> sortView(SortedListModel<T> sorted) {
+        ListModel<T> upstream = sorted != null ? sorted : baseModel;
+        replaceViews(sorted, filterModel != null ? filterModel.rebase(upstream) : null);
+        return this;
     }
 
-    public static ListBox create(String... items) {
-        return new ListBox(items);
+    private int toModelIndex(int viewIndex) {
+        int index = filterModel == null ? viewIndex : filterModel.convertToSource(viewIndex);
+        return sortModel == null || index < 0 ? index : sortModel.convertToSource(index);
     }
 
-    public static ListBox create(List<String> items) {
-        return new ListBox(items);
+    private int toViewIndex(int modelIndex) {
+        int index = sortModel == null ? modelIndex : sortModel.convertFromSource(modelIndex);
+        return filterModel == null || index < 0 ? index : filterModel.convertFromSource(index);
     }
 
-    public static ListBox createEmpty() {
-        return new ListBox(new String[0]);
+    public static ListBox<String> create(String... items) {
+        return create(Arrays.asList(items));
+    }
+
+    public static ListBox<String> create(List<String> items) {
+        return create(items, String::valueOf);
+    }
+
+    public static <T> ListBox<T> create(List<T> items, Function<? super T, String> projection) {
+        return new ListBox<>(itemsOf(items), projection);
+    }
+
+    public static ListBox<String> create(ItemCatalog<String> catalog) {
+        return create(catalog, String::valueOf);
+    }
+
+    public static <T> ListBox<T> create(ItemCatalog<T> catalog, Function<? super T, String> projection) {
+        return new ListBox<>(new ItemListModel<>(catalog), projection);
+    }
+
+    public static ListBox<String> createEmpty() {
+        return createEmpty(String::valueOf);
+    }
+
+    public static <T> ListBox<T> createEmpty(Function<? super T, String> projection) {
+        return new ListBox<>(new ItemListModel<>(), projection);
+    }
+
+    public static ListBox<String> createVirtual(int size, IntFunction<String> provider) {
+        return createVirtual(size, provider, String::valueOf);
+    }
+
+    public static <T> ListBox<T> createVirtual(int size, IntFunction<T> provider, Function<? super T, String> projection) {
+        ListBox<T> listBox = new ListBox<>(new VirtualListModel<>(size, provider), projection);
+        if (size > 0) {
+            listBox.listBox.setPrototypeCellValue(provider.apply(0));
+        }
+        return listBox;
+    }
+
+    public static ListBox<String> createCompact(List<String> items) {
+        ListBox<String> listBox = new ListBox<>(new ItemListModel<>(new CompactStringList(items)), String::valueOf);
+        listBox.listBox.setPrototypeCellValue(CompactStringList.prototypeOf(items));
+        return listBox;
+    }
+
+    public static ListBox<String> createCompact() {
+        return new ListBox<>(new ItemListModel<>(new CompactStringList()), String::valueOf);
+    }
+
+    public static ListBox<String> fromPagedSource(PagedSource<String> source) {
+        return fromPagedSource(source, String::valueOf);
+    }
+
+    public static <T> ListBox<T> fromPagedSource(PagedSource<T> source, Function<? super T, String> projection) {
+        ListBox<T> listBox = new ListBox<>(new PagedListModel<>(source, null), projection);
+        listBox.renderer.placeholder(LOADING_PLACEHOLDER);
+        listBox.listBox.setPrototypeCellValue(ProjectionCellRenderer.prototype(ROW_PROTOTYPE));
+        return listBox;
+    }
+
+    public static ListBox<String> streaming(int capacity) {
+        return streaming(capacity, String::valueOf);
+    }
+
+    public static <T> ListBox<T> streaming(int capacity, Function<? super T, String> projection) {
+        ListBox<T> listBox = new ListBox<>(new RingBufferListModel<>(capacity), projection);
+        listBox.listBox.setPrototypeCellValue(ProjectionCellRenderer.prototype(ROW_PROTOTYPE));
+        return listBox;
     }
 
     @Override
@@ -60,6 +206,7 @@ public class ListBox extends Component<ListBox> {
     }
 
     private void setupEventHandlers() {
+        listBox.setSelectionModel(selectionModel);
         listBox.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
         listBox.addListSelectionListener(new ListSelectionListener() {
@@ -67,12 +214,12 @@ public class ListBox extends Component<ListBox> {
             public void valueChanged(ListSelectionEvent e) {
                 if (!e.getValueIsAdjusting()) {
                     if (selectionHandler != null) {
-                        String selected = listBox.getSelectedValue();
+                        T selected = listBox.getSelectedValue();
                         selectionHandler.accept(selected);
                     }
                     
                     if (multiSelectionHandler != null) {
-                        List<String> selected = listBox.getSelectedValuesList();
+                        List<T> selected = listBox.getSelectedValuesList();
                         multiSelectionHandler.accept(selected);
                     }
                     
@@ -80,150 +227,340 @@ public class ListBox extends Component<ListBox> {
                         int index = listBox.getSelectedIndex();
                         indexSelectionHandler.accept(index);
                     }
+
+                    if (rangeSelectionHandler != null) {
+                        int[][] changed = selectionModel.takeChangedRanges();
+                        if (changed.length > 0) {
+                            rangeSelectionHandler.accept(changed);
+                        }
+                    }
                 }
             }
         });
     }
 
-    public ListBox onSelection(Consumer<String> handler) {
+    public ListBox<T> onSelection(Consumer<T> handler) {
         this.selectionHandler = handler;
         return this;
     }
 
-    public ListBox onMultiSelection(Consumer<List<String>> handler) {
+    public ListBox<T> onMultiSelection(Consumer<List<T>> handler) {
         this.multiSelectionHandler = handler;
         return this;
     }
 
-    public ListBox onIndexSelection(Consumer<Integer> handler) {
+    public ListBox<T> onIndexSelection(Consumer<Integer> handler) {
         this.indexSelectionHandler = handler;
         return this;
     }
 
-    public ListBox selectionMode(int mode) {
+    public ListBox<T> onSelectionRanges(Consumer<int[][]> handler) {
+        this.rangeSelectionHandler = handler;
+        selectionModel.takeChangedRanges();
+        return this;
+    }
+
+    public ListBox<T> selectionMode(int mode) {
         listBox.setSelectionMode(mode);
         return this;
     }
 
-    public ListBox singleSelection() {
+    public ListBox<T> singleSelection() {
         return selectionMode(ListSelectionModel.SINGLE_SELECTION);
     }
 
-    public ListBox multipleSelection() {
+    public ListBox<T> multipleSelection() {
         return selectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
     }
 
-    public ListBox contiguousSelection() {
+    public ListBox<T> contiguousSelection() {
         return selectionMode(ListSelectionModel.SINGLE_INTERVAL_SELECTION);
     }
 
-    public ListBox addItem(String item) {
-        listModel.addElement(item);
+    public ListBox<T> addItem(T item) {
+        if (itemModel != null) {
+            itemModel.add(item);
+        }
         return this;
     }
 
-    public ListBox addItems(String... items) {
-        for (String item : items) {
-            listModel.addElement(item);
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final ListBox<T> addItems(T... items) {
+        return addItems(Arrays.asList(items));
+    }
+
+    public ListBox<T> addItems(List<? extends T> items) {
+        if (itemModel != null) {
+            itemModel.addAll(items);
         }
         return this;
     }
 
-    public ListBox addItems(List<String> items) {
-        for (String item : items) {
-            listModel.addElement(item);
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final ListBox<T> setItems(T... items) {
+        return setItems(Arrays.asList(items));
+    }
+
+    public ListBox<T> setItems(List<? extends T> items) {
+        if (itemModel != null) {
+            itemModel.update(items);
         }
         return this;
     }
 
-    public ListBox removeItem(String item) {
-        listModel.removeElement(item);
+    public ListBox<T> replaceAll(UnaryOperator<T> operator) {
+        if (itemModel != null) {
+            itemModel.replaceAll(operator);
+        }
         return this;
     }
 
-    public ListBox removeItemAt(int index) {
-        if (index >= 0 && index < listModel.size()) {
-            listModel.remove(index);
+    public ListBox<T> removeItem(T item) {
+        if (itemModel != null) {
+            itemModel.removeItem(item);
         }
         return this;
     }
 
-    public ListBox removeAllItems() {
-        listModel.clear();
+    public ListBox<T> removeItemAt(int index) {
+        if (itemModel != null && index >= 0 && index < listModel.getSize()) {
+            itemModel.remove(toModelIndex(index));
+        }
+        return this;
+    }
+
+    public ListBox<T> removeRange(int fromIndex, int toIndex) {
+        if (itemModel != null && listModel == baseModel) {
+            itemModel.removeRange(Math.max(0, fromIndex), Math.min(itemModel.getSize() - 1, toIndex));
+        } else if (itemModel != null) {
+            int index = Math.min(listModel.getSize() - 1, toIndex);
+            while (index >= Math.max(0, fromIndex)) {
+                int runEnd = toModelIndex(index);
+                int runStart = runEnd;
+                while (--index >= Math.max(0, fromIndex) && toModelIndex(index) == runStart - 1) {
+                    runStart--;
+                }
+                itemModel.removeRange(runStart, runEnd);
+            }
+        }
+        return this;
+    }
+
+    public ListBox<T> removeAllItems() {
+        if (itemModel != null) {
+            itemModel.clear();
+        } else if (streamModel != null) {
+            pendingAppends.clear();
+            streamModel.clear();
+        }
         return this;
     }
 
-    public ListBox selectedIndex(int index) {
-        if (index >= 0 && index < listModel.size()) {
+    public ListBox<T> append(T item) {
+        if (streamModel != null) {
+            pendingAppends.add(item);
+            if (drainScheduled.compareAndSet(false, true)) {
+                FrameClock.requestFrame(this::drainAppends);
+            }
+        }
+        return this;
+    }
+
+    public ListBox<T> followTail(boolean follow) {
+        this.followTail = follow;
+        return this;
+    }
+
+    public ListBox<T> followTail() {
+        return followTail(true);
+    }
+
+    private void drainAppends() {
+        drainScheduled.set(false);
+        int capacity = streamModel.getCapacity();
+        List<T> batch = new ArrayList<>();
+        T item;
+        while ((item = pendingAppends.poll()) != null) {
+            batch.add(item);
+        }
+        if (batch.size() > capacity) {
+            batch = batch.subList(batch.size() - capacity, batch.size());
+        }
+        boolean atTail = followTail && isScrolledToEnd();
+        streamModel.appendAll(batch);
+        if (atTail && listModel.getSize() > 0) {
+            listBox.ensureIndexIsVisible(listModel.getSize() - 1);
+        }
+    }
+
+    private boolean isScrolledToEnd() {
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        return bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - bar.getUnitIncrement(1);
+    }
+
+    public ListBox<T> filter(String query) {
+        filterView().setQuery(query);
+        return this;
+    }
+
+    public ListBox<T> projection(Function<? super T, String> projection) {
+        renderer.setProjection(projection);
+        if (filterModel != null) {
+            filterModel.textChanged();
+        }
+        if (sortModel != null && sortModel.isCollated()) {
+            sortModel.resort();
+        }
+        listBox.repaint();
+        return this;
+    }
+
+    public String getItemText(int index) {
+        T item = getItemAt(index);
+        return item == null ? null : renderer.textAt(index, item);
+    }
+
+    public ListBox<T> filter(Predicate<? super T> predicate) {
+        filterView().setPredicate(predicate);
+        return this;
+    }
+
+    public ListBox<T> clearFilter() {
+        if (filterModel != null) {
+            filterModel.setQuery(null);
+        }
+        return this;
+    }
+
+    public boolean isFiltered() {
+        return filterModel != null && filterModel.isFiltering();
+    }
+
+    public ListBox<T> sortedBy(Comparator<? super T> comparator) {
+        return sortView(new SortedListModel<>(baseModel, comparator));
+    }
+
+    public ListBox<T> sortedBy(Collator collator) {
+        return sortView(new SortedListModel<>(baseModel, collator, renderer::textOf));
+    }
+
+    public ListBox<T> sorted() {
+        return sortedBy(Collator.getInstance());
+    }
+
+    public ListBox<T> unsorted() {
+        return sortModel == null ? this : sortView(null);
+    }
+
+    public boolean isSorted() {
+        return sortModel != null;
+    }
+
+    public ListBox<T> virtualSize(int size) {
+        if (baseModel instanceof VirtualListModel) {
+            ((VirtualListModel<T>) baseModel).setSize(size);
+        }
+        return this;
+    }
+
+    public ListBox<T> refresh() {
+        if (baseModel instanceof VirtualListModel) {
+            ((VirtualListModel<T>) baseModel).refresh();
+        } else if (baseModel instanceof PagedListModel) {
+            ((PagedListModel<T>) baseModel).refresh();
+        }
+        return this;
+    }
+
+    public ListBox<T> refresh(int fromIndex, int toIndex) {
+        if (baseModel instanceof VirtualListModel) {
+            ((VirtualListModel<T>) baseModel).refresh(fromIndex, toIndex);
+        } else if (baseModel instanceof PagedListModel) {
+            ((PagedListModel<T>) baseModel).refresh(fromIndex, toIndex);
+        }
+        return this;
+    }
+
+    public ListBox<T> onLoadError(Consumer<Exception> handler) {
+        if (baseModel instanceof PagedListModel) {
+            ((PagedListModel<T>) baseModel).onError(handler);
+        }
+        return this;
+    }
+
+    public ListBox<T> selectedIndex(int index) {
+        if (index >= 0 && index < listModel.getSize()) {
             listBox.setSelectedIndex(index);
         }
         return this;
     }
 
-    public ListBox selectedIndices(int... indices) {
+    public ListBox<T> selectedIndices(int... indices) {
         listBox.setSelectedIndices(indices);
         return this;
     }
 
-    public ListBox selectedItem(String item) {
+    public ListBox<T> selectedItem(T item) {
         listBox.setSelectedValue(item, true);
         return this;
     }
 
-    public ListBox visibleRowCount(int rows) {
+    public ListBox<T> visibleRowCount(int rows) {
         listBox.setVisibleRowCount(rows);
         return this;
     }
 
-    public ListBox fixedCellHeight(int height) {
+    public ListBox<T> fixedCellHeight(int height) {
         listBox.setFixedCellHeight(height);
         return this;
     }
 
-    public ListBox fixedCellWidth(int width) {
+    public ListBox<T> fixedCellWidth(int width) {
         listBox.setFixedCellWidth(width);
         return this;
     }
 
-    public ListBox horizontalScrollPolicy(int policy) {
+    public ListBox<T> horizontalScrollPolicy(int policy) {
         scrollPane.setHorizontalScrollBarPolicy(policy);
         return this;
     }
 
-    public ListBox verticalScrollPolicy(int policy) {
+    public ListBox<T> verticalScrollPolicy(int policy) {
         scrollPane.setVerticalScrollBarPolicy(policy);
         return this;
     }
 
-    public ListBox autoScrollHorizontal() {
+    public ListBox<T> autoScrollHorizontal() {
         return horizontalScrollPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
     }
 
-    public ListBox autoScrollVertical() {
+    public ListBox<T> autoScrollVertical() {
         return verticalScrollPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
     }
 
-    public ListBox alwaysScrollHorizontal() {
+    public ListBox<T> alwaysScrollHorizontal() {
         return horizontalScrollPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_ALWAYS);
     }
 
-    public ListBox alwaysScrollVertical() {
+    public ListBox<T> alwaysScrollVertical() {
         return verticalScrollPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
     }
 
-    public ListBox neverScrollHorizontal() {
+    public ListBox<T> neverScrollHorizontal() {
         return horizontalScrollPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
     }
 
-    public ListBox neverScrollVertical() {
+    public ListBox<T> neverScrollVertical() {
         return verticalScrollPolicy(JScrollPane.VERTICAL_SCROLLBAR_NEVER);
     }
 
-    public String getSelectedItem() {
+    public T getSelectedItem() {
         return listBox.getSelectedValue();
     }
 
-    public List<String> getSelectedItems() {
+    public List<T> getSelectedItems() {
         return listBox.getSelectedValuesList();
     }
 
@@ -235,27 +572,39 @@ public class ListBox extends Component<ListBox> {
         return listBox.getSelectedIndices();
     }
 
+    public int[][] getSelectedRanges() {
+        return selectionModel.getSelectedRanges();
+    }
+
+    public IntStream selectedIndexStream() {
+        return selectionModel.selectedIndexStream();
+    }
+
+    public int selectionCount() {
+        return selectionModel.getSelectedItemsCount();
+    }
+
     public int getItemCount() {
-        return listModel.size();
+        return listModel.getSize();
     }
 
-    public String getItemAt(int index) {
-        if (index >= 0 && index < listModel.size()) {
+    public T getItemAt(int index) {
+        if (index >= 0 && index < listModel.getSize()) {
             return listModel.getElementAt(index);
         }
         return null;
     }
 
-    public List<String> getAllItems() {
-        List<String> items = new ArrayList<>();
-        for (int i = 0; i < listModel.size(); i++) {
+    public List<T> getAllItems() {
+        List<T> items = new ArrayList<>();
+        for (int i = 0; i < listModel.getSize(); i++) {
             items.add(listModel.getElementAt(i));
         }
         return items;
     }
 
     @Override
-    public ListBox build() {
+    public ListBox<T> build() {
         return this;
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.vibeui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+final class ListDiff {
+    static final int MAX_EDIT_DISTANCE = 2048;
+
+    static final class Hunk {
+        final int oldStart;
+        final int oldEnd;
+        final int newStart;
+        final int newEnd;
+
+        Hunk(int oldStart, int oldEnd, int newStart, int newEnd) {
+            this.oldStart = oldStart;
+            this.oldEnd = oldEnd;
+            this.newStart = newStart;
+            this.newEnd = newEnd;
+        }
+
+        int oldLength() {
+            return oldEnd - oldStart;
+        }
+
+        int newLength() {
+            return newEnd - newStart;
+        }
+    }
+
+    private ListDiff() {
+    }
+
+    static List<Hunk> compute(List<?> oldItems, List<?> newItems) {
+        int oldSize = oldItems.size();
+        int newSize = newItems.size();
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize && Objects.equals(oldItems.get(prefix), newItems.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && Objects.equals(oldItems.get(oldSize - 1 - suffix), newItems.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        List<Hunk> hunks = new ArrayList<>();
+        int oldLength = oldSize - prefix - suffix;
+        int newLength = newSize - prefix - suffix;
+        if (oldLength == 0 && newLength == 0) {
+            return hunks;
+        }
+        if (oldLength == 0 || newLength == 0) {
+            hunks.add(new Hunk(prefix, prefix + oldLength, prefix, prefix + newLength));
+            return hunks;
+        }
+
+        int[] a = new int[oldLength];
+        int[] b = new int[newLength];
+        assignIds(oldItems, newItems, prefix, a, b);
+
+        if (oldLength == newLength && positionalDiff(a, b, prefix, hunks)) {
+            return hunks;
+        }
+        hunks.clear();
+        if (!myersDiff(a, b, prefix, hunks)) {
+            hunks.clear();
+            hunks.add(new Hunk(prefix, prefix + oldLength, prefix, prefix + newLength));
+        }
+        return hunks;
+    }
+
+    private static void assignIds(List<?> oldItems, List<?> newItems, int offset, int[] a, int[] b) {
+        Map<Object, Integer> ids = new HashMap<>();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = ids.computeIfAbsent(oldItems.get(offset + i), key -> ids.size());
+        }
+        for (int i = 0; i < b.length; i++) {
+            b[i] = ids.computeIfAbsent(newItems.get(offset + i), key -> ids.size());
+        }
+    }
+
+    private static boolean positionalDiff(int[] a, int[] b, int offset, List<Hunk> hunks) {
+        int limit = Math.max(1, a.length / 8);
+        int mismatches = 0;
+        int start = -1;
+        for (int i = 0; i <= a.length; i++) {
+            boolean differs = i < a.length && a[i] != b[i];
+            if (differs) {
+                if (++mismatches > limit) {
+                    return false;
+                }
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                hunks.add(new Hunk(offset + start, offset + i, offset + start, offset + i));
+                start = -1;
+            }
+        }
+        return true;
+    }
+
+    private static boolean myersDiff(int[] a, int[] b, int offset, List<Hunk> hunks) {
+        int n = a.length;
+        int m = b.length;
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int center = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        int distance = -1;
+        for (int d = 0; d <= max && distance < 0; d++) {
+            trace.add(Arrays.copyOfRange(v, center - d - 1, center + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || k != d && v[center + k - 1] < v[center + k + 1]) {
+                    x = v[center + k + 1];
+                } else {
+                    x = v[center + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[x] == b[y]) {
+                    x++;
+                    y++;
+                }
+                v[center + k] = x;
+                if (x >= n && y >= m) {
+                    distance = d;
+                    break;
+                }
+            }
+        }
+        if (distance < 0) {
+            return false;
+        }
+
+        int[] moveX = new int[distance];
+        int[] moveY = new int[distance];
+        boolean[] deletions = new boolean[distance];
+        int x = n;
+        int y = m;
+        for (int d = distance; d > 0; d--) {
+            int[] snapshot = trace.get(d);
+            int k = x - y;
+            boolean insertion = k == -d || k != d && snapshot[k + d] < snapshot[k + d + 2];
+            int prevK = insertion ? k + 1 : k - 1;
+            int prevX = snapshot[prevK + d + 1];
+            int prevY = prevX - prevK;
+            moveX[d - 1] = prevX;
+            moveY[d - 1] = prevY;
+            deletions[d - 1] = !insertion;
+            x = prevX;
+            y = prevY;
+        }
+
+        Hunk current = null;
+        for (int i = 0; i < distance; i++) {
+            int startX = offset + moveX[i];
+            int startY = offset + moveY[i];
+            int deleted = deletions[i] ? 1 : 0;
+            int inserted = 1 - deleted;
+            if (current != null && current.oldEnd == startX && current.newEnd == startY) {
+                current = new Hunk(current.oldStart, current.oldEnd + deleted,
+                        current.newStart, current.newEnd + inserted);
+                hunks.set(hunks.size() - 1, current);
+            } else {
+                current = new Hunk(startX, startX + deleted, startY, startY + inserted);
+                hunks.add(current);
+            }
+        }
+        return true;
+    }
+}
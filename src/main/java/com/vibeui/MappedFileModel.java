@@ -0,0 +1,195 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+@SuppressWarnings("serial")
+class MappedFileModel extends AbstractListModel<String> {
+    private static final long REGION_SIZE = 1L << 30;
+    private static final int CHECKPOINT_SHIFT = 6;
+    private static final int CHECKPOINT_MASK = (1 << CHECKPOINT_SHIFT) - 1;
+    private static final int MAX_LINE_BYTES = 16384;
+    private static final String TRUNCATION_MARKER = " \u2026 [line truncated]";
+    private static final String ASCII_PROBE = "\n\r\t azAZ09";
+    private static final int CACHE_SIZE = 256;
+    private static final long PUBLISH_NANOS = 50_000_000L;
+    private static final int FIRST_PUBLISH_LINES = 256;
+
+    private final Charset charset;
+    private final List<Consumer<Double>> progressHandlers = new ArrayList<>();
+    private final String[] cachedLines = new String[CACHE_SIZE];
+    private final int[] cachedIndices = new int[CACHE_SIZE];
+    private MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private long fileSize;
+    private long[] checkpoints = new long[0];
+    private int lineCount;
+    private double progress;
+    private int lastLine = -1;
+    private long lastLineStart;
+
+    // Lines are split on raw '\n' bytes, which is only sound when the charset
+    // encodes ASCII as single ASCII bytes (UTF-8, ISO-8859-x, windows-125x...).
+    MappedFileModel(Path path, Charset charset) throws IOException {
+        if (!Arrays.equals(ASCII_PROBE.getBytes(charset), ASCII_PROBE.getBytes(StandardCharsets.US_ASCII))) {
+            throw new IllegalArgumentException("Charset is not ASCII-compatible: " + charset.name());
+        }
+        this.charset = charset;
+        Arrays.fill(cachedIndices, -1);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            fileSize = channel.size();
+            int count = (int) ((fileSize + REGION_SIZE - 1) / REGION_SIZE);
+            regions = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = i * REGION_SIZE;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, fileSize - start));
+            }
+        }
+        if (fileSize == 0) {
+            progress = 1.0;
+        } else {
+            BackgroundTasks.submit(this::buildIndex);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return lineCount;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        if (index < 0 || index >= lineCount) {
+            return "";
+        }
+        int slot = index & (CACHE_SIZE - 1);
+        if (cachedIndices[slot] == index) {
+            return cachedLines[slot];
+        }
+        long start = lineStart(index);
+        long end = start;
+        long limit = Math.min(fileSize, start + MAX_LINE_BYTES);
+        while (end < limit && byteAt(end) != '\n') {
+            end++;
+        }
+        boolean truncated = end == limit && end < fileSize && byteAt(end) != '\n';
+        int length = (int) (end - start);
+        if (!truncated && length > 0 && byteAt(start + length - 1) == '\r') {
+            length--;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = byteAt(start + i);
+        }
+        String line = new String(bytes, charset);
+        if (truncated) {
+            // The cut can split a multi-byte character, which decodes as U+FFFD.
+            int keep = line.length();
+            while (keep > 0 && line.charAt(keep - 1) == '\uFFFD') {
+                keep--;
+            }
+            line = line.substring(0, keep) + TRUNCATION_MARKER;
+        }
+        cachedIndices[slot] = index;
+        cachedLines[slot] = line;
+        return line;
+    }
+
+    long getFileSize() {
+        return fileSize;
+    }
+
+    double getProgress() {
+        return progress;
+    }
+
+    void onProgress(Consumer<Double> handler) {
+        progressHandlers.add(handler);
+        handler.accept(progress);
+    }
+
+    private long lineStart(int index) {
+        int block = index >>> CHECKPOINT_SHIFT;
+        long offset;
+        int line;
+        if (lastLine >= 0 && lastLine <= index && lastLine >>> CHECKPOINT_SHIFT == block) {
+            offset = lastLineStart;
+            line = lastLine;
+        } else {
+            offset = checkpoints[block];
+            line = index & ~CHECKPOINT_MASK;
+        }
+        while (line < index) {
+            while (byteAt(offset) != '\n') {
+                offset++;
+            }
+            offset++;
+            line++;
+        }
+        lastLine = index;
+        lastLineStart = offset;
+        return offset;
+    }
+
+    private byte byteAt(long position) {
+        return regions[(int) (position / REGION_SIZE)].get((int) (position % REGION_SIZE));
+    }
+
+    private void buildIndex() {
+        long[] found = new long[1024];
+        int lines = 0;
+        found[0] = 0;
+        long lastPublish = System.nanoTime();
+        boolean published = false;
+        long position = 0;
+        for (MappedByteBuffer region : regions) {
+            int limit = region.limit();
+            for (int i = 0; i < limit; i++) {
+                if (region.get(i) != '\n') {
+                    continue;
+                }
+                lines++;
+                if ((lines & CHECKPOINT_MASK) == 0) {
+                    int slot = lines >>> CHECKPOINT_SHIFT;
+                    if (slot == found.length) {
+                        found = Arrays.copyOf(found, found.length * 2);
+                    }
+                    found[slot] = position + i + 1;
+                }
+                if (!published && lines >= FIRST_PUBLISH_LINES
+                        || (lines & 0xFFF) == 0 && System.nanoTime() - lastPublish >= PUBLISH_NANOS) {
+                    publish(found, lines, (double) (position + i + 1) / fileSize);
+                    lastPublish = System.nanoTime();
+                    published = true;
+                }
+            }
+            position += limit;
+        }
+        if (byteAt(fileSize - 1) != '\n') {
+            lines++;
+        }
+        publish(found, lines, 1.0);
+    }
+
+    private void publish(long[] found, int lines, double fraction) {
+        SwingUtilities.invokeLater(() -> {
+            int oldCount = lineCount;
+            checkpoints = found;
+            lineCount = lines;
+            progress = fraction;
+            if (lines > oldCount) {
+                fireIntervalAdded(this, oldCount, lines - 1);
+            }
+            progressHandlers.forEach(handler -> handler.accept(fraction));
+        });
+    }
+}
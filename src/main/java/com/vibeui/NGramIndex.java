@@ -0,0 +1,87 @@
+package com.vibeui;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+class NGramIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int rowCount;
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    boolean add(CharSequence text) {
+        int row = rowCount++;
+        int length = text.length();
+        for (int i = 0; i + GRAM_LENGTH <= length; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            Postings list = postings.computeIfAbsent(gram(text, i), key -> new Postings());
+            list.add(row);
+        }
+        return true;
+    }
+
+    int[] candidates(String lowerQuery) {
+        if (lowerQuery.length() < GRAM_LENGTH) {
+            return null;
+        }
+        Postings smallest = null;
+        int gramCount = lowerQuery.length() - GRAM_LENGTH + 1;
+        Postings[] lists = new Postings[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            Postings list = postings.get(gram(lowerQuery, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists[i] = list;
+            if (smallest == null || list.size < smallest.size) {
+                smallest = list;
+            }
+        }
+
+        int[] result = Arrays.copyOf(smallest.rows, smallest.size);
+        int size = result.length;
+        for (Postings list : lists) {
+            if (list == smallest) {
+                continue;
+            }
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (Arrays.binarySearch(list.rows, 0, list.size, result[i]) >= 0) {
+                    result[kept++] = result[i];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long gram(CharSequence text, int offset) {
+        long gram = 0;
+        for (int i = 0; i < GRAM_LENGTH; i++) {
+            gram = (gram << 16) | Character.toLowerCase(text.charAt(offset + i));
+        }
+        return gram;
+    }
+
+    private static class Postings {
+        int[] rows = new int[2];
+        int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@SuppressWarnings("serial")
+class PagedListModel<E> extends AbstractListModel<E> {
+    private static final int DEFAULT_PREFETCH_PAGES = 2;
+    private static final int DEFAULT_MAX_PAGES = 32;
+    private static final int RETRY_DELAY_MILLIS = 1000;
+
+    private final PagedSource<E> source;
+    private final E placeholder;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final Map<Integer, List<E>> pages;
+    private final Set<Integer> inFlight = new HashSet<>();
+    private final Map<Integer, Integer> pageVersions = new HashMap<>();
+    private final List<Consumer<Exception>> errorHandlers = new ArrayList<>();
+    private int size;
+    private int touchedLow = Integer.MAX_VALUE;
+    private int touchedHigh = -1;
+    private int lastLow = -1;
+    private int direction = 1;
+    private volatile int generation;
+    private volatile int wantedLow;
+    private volatile int wantedHigh = -1;
+
+    PagedListModel(PagedSource<E> source, E placeholder) {
+        this(source, placeholder, DEFAULT_PREFETCH_PAGES, DEFAULT_MAX_PAGES);
+    }
+
+    PagedListModel(PagedSource<E> source, E placeholder, int prefetchPages, int maxPages) {
+        this.source = source;
+        this.placeholder = placeholder;
+        this.pageSize = Math.max(1, source.pageSize());
+        this.prefetchPages = Math.max(0, prefetchPages);
+        int capacity = Math.max(maxPages, 2 * this.prefetchPages + 4);
+        this.pages = new LinkedHashMap<Integer, List<E>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<E>> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.size = Math.max(0, source.size());
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public E getElementAt(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int page = index / pageSize;
+        List<E> rows = pages.get(page);
+        if (rows != null) {
+            int offset = index - page * pageSize;
+            return offset < rows.size() ? rows.get(offset) : placeholder;
+        }
+        touch(page);
+        return placeholder;
+    }
+
+    int getCachedPageCount() {
+        return pages.size();
+    }
+
+    void onError(Consumer<Exception> handler) {
+        errorHandlers.add(handler);
+    }
+
+    boolean isLoaded(int index) {
+        return pages.containsKey(index / pageSize);
+    }
+
+    void refresh() {
+        generation++;
+        pages.clear();
+        inFlight.clear();
+        pageVersions.clear();
+        int oldSize = size;
+        size = Math.max(0, source.size());
+        if (size > oldSize) {
+            fireIntervalAdded(this, oldSize, size - 1);
+        } else if (size < oldSize) {
+            fireIntervalRemoved(this, size, oldSize - 1);
+        }
+        int common = Math.min(oldSize, size);
+        if (common > 0) {
+            fireContentsChanged(this, 0, common - 1);
+        }
+    }
+
+    void refresh(int fromIndex, int toIndex) {
+        fromIndex = Math.max(0, fromIndex);
+        toIndex = Math.min(size - 1, toIndex);
+        if (fromIndex > toIndex) {
+            return;
+        }
+        // Fetches already running for these pages are stale; bumping the page
+        // version makes pageArrived drop them, and the repaint refetches.
+        for (int page = fromIndex / pageSize; page <= toIndex / pageSize; page++) {
+            pages.remove(page);
+            inFlight.remove(page);
+            pageVersions.merge(page, 1, Integer::sum);
+        }
+        fireContentsChanged(this, fromIndex, toIndex);
+    }
+
+    private void touch(int page) {
+        if (touchedHigh < 0) {
+            FrameClock.requestFrame(this::planFetches);
+        }
+        touchedLow = Math.min(touchedLow, page);
+        touchedHigh = Math.max(touchedHigh, page);
+    }
+
+    private void planFetches() {
+        int low = touchedLow;
+        int high = touchedHigh;
+        touchedLow = Integer.MAX_VALUE;
+        touchedHigh = -1;
+        if (lastLow >= 0 && low != lastLow) {
+            direction = low > lastLow ? 1 : -1;
+        }
+        lastLow = low;
+
+        int lastPage = (size - 1) / pageSize;
+        int aheadLow = direction < 0 ? Math.max(0, low - prefetchPages) : low;
+        int aheadHigh = direction > 0 ? Math.min(lastPage, high + prefetchPages) : high;
+        wantedLow = aheadLow;
+        wantedHigh = aheadHigh;
+
+        for (int page = low; page <= high; page++) {
+            fetch(page);
+        }
+        if (direction > 0) {
+            for (int page = high + 1; page <= aheadHigh; page++) {
+                fetch(page);
+            }
+        } else {
+            for (int page = low - 1; page >= aheadLow; page--) {
+                fetch(page);
+            }
+        }
+    }
+
+    private void fetch(int page) {
+        if (pages.containsKey(page) || !inFlight.add(page)) {
+            return;
+        }
+        int requestGeneration = generation;
+        int version = pageVersions.getOrDefault(page, 0);
+        int offset = page * pageSize;
+        int limit = Math.min(pageSize, size - offset);
+        BackgroundTasks.submit(() -> {
+            List<E> rows = null;
+            Exception error = null;
+            if (requestGeneration == generation && page >= wantedLow && page <= wantedHigh) {
+                try {
+                    rows = source.fetch(offset, limit);
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+                if (rows == null && error == null) {
+                    error = new IllegalStateException("PagedSource.fetch returned null for rows " + offset + "+" + limit);
+                }
+            }
+            List<E> result = rows;
+            Exception failure = error;
+            SwingUtilities.invokeLater(() -> pageArrived(page, requestGeneration, version, result, failure));
+        });
+    }
+
+    private void pageArrived(int page, int requestGeneration, int version, List<E> rows, Exception error) {
+        if (requestGeneration != generation || version != pageVersions.getOrDefault(page, 0)) {
+            return;
+        }
+        inFlight.remove(page);
+        if (rows != null) {
+            pages.put(page, rows);
+            pageChanged(page);
+        } else if (error != null) {
+            errorHandlers.forEach(handler -> handler.accept(error));
+            // The repaint after the delay touches the page again and retries it,
+            // without hammering a failing source on every frame.
+            Timer retry = new Timer(RETRY_DELAY_MILLIS, e -> {
+                if (requestGeneration == generation && version == pageVersions.getOrDefault(page, 0)
+                        && !pages.containsKey(page)) {
+                    pageChanged(page);
+                }
+            });
+            retry.setRepeats(false);
+            retry.start();
+        }
+    }
+
+    private void pageChanged(int page) {
+        int from = page * pageSize;
+        int to = Math.min(size, from + pageSize) - 1;
+        if (from <= to) {
+            fireContentsChanged(this, from, to);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.vibeui;
+
+import java.util.List;
+
+public interface PagedSource<T> {
+    int DEFAULT_PAGE_SIZE = 200;
+
+    int size();
+
+    List<T> fetch(int offset, int limit);
+
+    default int pageSize() {
+        return DEFAULT_PAGE_SIZE;
+    }
+}
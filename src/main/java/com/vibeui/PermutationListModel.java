@@ -0,0 +1,289 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import java.util.Arrays;
+
+@SuppressWarnings("serial")
+abstract class PermutationListModel<E> extends AbstractListModel<E> implements ListDataListener {
+    protected final ListModel<E> source;
+    protected int[] indices;
+    private int[] inverse;
+    private JList<?> boundList;
+    private int[] hiddenSelection = new int[0];
+    private boolean restoringSelection;
+
+    private final ListSelectionListener selectionTracker = new ListSelectionListener() {
+        @Override
+        public void valueChanged(ListSelectionEvent e) {
+            if (!restoringSelection && !e.getValueIsAdjusting()) {
+                hiddenSelection = new int[0];
+            }
+        }
+    };
+
+    PermutationListModel(ListModel<E> source) {
+        this.source = source;
+        source.addListDataListener(this);
+    }
+
+    @Override
+    public int getSize() {
+        return indices == null ? source.getSize() : indices.length;
+    }
+
+    @Override
+    public E getElementAt(int index) {
+        return source.getElementAt(convertToSource(index));
+    }
+
+    boolean isPassThrough() {
+        return indices == null;
+    }
+
+    int convertToSource(int viewIndex) {
+        if (indices == null) {
+            return viewIndex;
+        }
+        return viewIndex >= 0 && viewIndex < indices.length ? indices[viewIndex] : -1;
+    }
+
+    int convertFromSource(int sourceIndex) {
+        if (indices == null) {
+            return sourceIndex;
+        }
+        if (inverse == null) {
+            inverse = new int[source.getSize()];
+            Arrays.fill(inverse, -1);
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] < inverse.length) {
+                    inverse[indices[i]] = i;
+                }
+            }
+        }
+        return sourceIndex >= 0 && sourceIndex < inverse.length ? inverse[sourceIndex] : -1;
+    }
+
+    void bindSelection(JList<?> list) {
+        if (boundList != null) {
+            boundList.removeListSelectionListener(selectionTracker);
+        }
+        boundList = list;
+        if (list != null) {
+            list.addListSelectionListener(selectionTracker);
+        }
+    }
+
+    void dispose() {
+        bindSelection(null);
+        source.removeListDataListener(this);
+    }
+
+    protected void applyIndices(int[] newIndices) {
+        applyIndices(newIndices, captureSelection());
+    }
+
+    protected void applyIndices(int[] newIndices, int[] selectedSource) {
+        int oldSize = getSize();
+        replaceIndices(newIndices);
+        int span = Math.max(oldSize, getSize());
+        if (span > 0) {
+            fireContentsChanged(this, 0, span - 1);
+        }
+        restoreSelection(selectedSource);
+    }
+
+    protected void replaceIndices(int[] newIndices) {
+        indices = newIndices;
+        inverse = null;
+    }
+
+    protected void applyInsertions(int[] newIndices, int[] positions, int count) {
+        replaceIndices(newIndices);
+        int runStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || positions[i] != positions[i - 1] + 1) {
+                fireIntervalAdded(this, positions[runStart], positions[i - 1]);
+                runStart = i;
+            }
+        }
+    }
+
+    protected void applyRemovals(int[] newIndices, int[] positions, int count) {
+        replaceIndices(newIndices);
+        int runEnd = count - 1;
+        for (int i = count - 2; i >= -1; i--) {
+            if (i == -1 || positions[i] != positions[i + 1] - 1) {
+                fireIntervalRemoved(this, positions[i + 1], positions[runEnd]);
+                runEnd = i;
+            }
+        }
+    }
+
+    protected int[] captureSelection() {
+        if (boundList == null) {
+            return new int[0];
+        }
+        ListSelectionModel selection = boundList.getSelectionModel();
+        if (selection instanceof RangeSelectionModel) {
+            return captureRanges(((RangeSelectionModel) selection).getSelectedRanges());
+        }
+        int min = selection.getMinSelectionIndex();
+        int max = Math.min(selection.getMaxSelectionIndex(), getSize() - 1);
+        int[] captured = Arrays.copyOf(hiddenSelection, hiddenSelection.length + Math.max(0, max - min + 1));
+        int count = hiddenSelection.length;
+        for (int i = Math.max(0, min); i <= max; i++) {
+            if (selection.isSelectedIndex(i)) {
+                captured[count++] = convertToSource(i);
+            }
+        }
+        return Arrays.copyOf(captured, count);
+    }
+
+    private int[] captureRanges(int[][] ranges) {
+        int size = getSize();
+        int count = hiddenSelection.length;
+        for (int[] range : ranges) {
+            count += Math.max(0, Math.min(range[1], size - 1) - range[0] + 1);
+        }
+        int[] captured = Arrays.copyOf(hiddenSelection, count);
+        count = hiddenSelection.length;
+        for (int[] range : ranges) {
+            for (int i = range[0]; i <= Math.min(range[1], size - 1); i++) {
+                captured[count++] = convertToSource(i);
+            }
+        }
+        return captured;
+    }
+
+    private void restoreSelection(int[] selectedSource) {
+        if (boundList == null) {
+            return;
+        }
+        ListSelectionModel selection = boundList.getSelectionModel();
+        int[] viewIndices = new int[selectedSource.length];
+        int[] hidden = new int[selectedSource.length];
+        int visibleCount = 0;
+        int hiddenCount = 0;
+        for (int sourceIndex : selectedSource) {
+            int viewIndex = convertFromSource(sourceIndex);
+            if (viewIndex >= 0) {
+                viewIndices[visibleCount++] = viewIndex;
+            } else {
+                hidden[hiddenCount++] = sourceIndex;
+            }
+        }
+        Arrays.sort(viewIndices, 0, visibleCount);
+
+        restoringSelection = true;
+        try {
+            selection.setValueIsAdjusting(true);
+            selection.clearSelection();
+            int runStart = 0;
+            for (int i = 1; i <= visibleCount; i++) {
+                if (i == visibleCount || viewIndices[i] != viewIndices[i - 1] + 1) {
+                    selection.addSelectionInterval(viewIndices[runStart], viewIndices[i - 1]);
+                    runStart = i;
+                }
+            }
+            selection.setValueIsAdjusting(false);
+        } finally {
+            restoringSelection = false;
+        }
+        hiddenSelection = Arrays.copyOf(hidden, hiddenCount);
+    }
+
+    protected int[] positionsOf(int index0, int index1) {
+        int[] positions = new int[Math.min(indices.length, index1 - index0 + 1)];
+        int count = 0;
+        for (int i = 0; i < indices.length && count < positions.length; i++) {
+            if (indices[i] >= index0 && indices[i] <= index1) {
+                positions[count++] = i;
+            }
+        }
+        return count == positions.length ? positions : Arrays.copyOf(positions, count);
+    }
+
+    protected static int[] shiftForInsert(int[] sourceIndices, int index0, int count) {
+        int[] shifted = new int[sourceIndices.length];
+        for (int i = 0; i < sourceIndices.length; i++) {
+            int value = sourceIndices[i];
+            shifted[i] = value >= index0 ? value + count : value;
+        }
+        return shifted;
+    }
+
+    protected static int[] shiftForRemove(int[] sourceIndices, int index0, int index1) {
+        int count = index1 - index0 + 1;
+        int[] shifted = new int[sourceIndices.length];
+        int size = 0;
+        for (int value : sourceIndices) {
+            if (value < index0) {
+                shifted[size++] = value;
+            } else if (value > index1) {
+                shifted[size++] = value - count;
+            }
+        }
+        return size == shifted.length ? shifted : Arrays.copyOf(shifted, size);
+    }
+
+    protected static int[] dropFrom(int[] sourceIndices, int limit) {
+        int[] kept = new int[sourceIndices.length];
+        int size = 0;
+        for (int value : sourceIndices) {
+            if (value < limit) {
+                kept[size++] = value;
+            }
+        }
+        return size == kept.length ? kept : Arrays.copyOf(kept, size);
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        if (indices == null) {
+            fireIntervalAdded(this, e.getIndex0(), e.getIndex1());
+            return;
+        }
+        int index0 = Math.min(e.getIndex0(), e.getIndex1());
+        int count = Math.abs(e.getIndex1() - e.getIndex0()) + 1;
+        int[] selected = shiftForInsert(captureSelection(), index0, count);
+        hiddenSelection = shiftForInsert(hiddenSelection, index0, count);
+        sourceRowsInserted(shiftForInsert(indices, index0, count), index0, index0 + count - 1, selected);
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        if (indices == null) {
+            fireIntervalRemoved(this, e.getIndex0(), e.getIndex1());
+            return;
+        }
+        int index0 = Math.min(e.getIndex0(), e.getIndex1());
+        int index1 = Math.max(e.getIndex0(), e.getIndex1());
+        int[] selected = shiftForRemove(captureSelection(), index0, index1);
+        hiddenSelection = shiftForRemove(hiddenSelection, index0, index1);
+        sourceRowsRemoved(shiftForRemove(indices, index0, index1), index0, index1, selected);
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        if (indices == null) {
+            fireContentsChanged(this, e.getIndex0(), e.getIndex1());
+            return;
+        }
+        int size = source.getSize();
+        int[] selected = dropFrom(captureSelection(), size);
+        hiddenSelection = dropFrom(hiddenSelection, size);
+        int index0 = Math.max(0, Math.min(e.getIndex0(), e.getIndex1()));
+        int index1 = Math.min(size - 1, Math.max(e.getIndex0(), e.getIndex1()));
+        sourceRowsChanged(dropFrom(indices, size), index0, index1, selected);
+    }
+
+    protected abstract void sourceRowsInserted(int[] adjusted, int index0, int index1, int[] selected);
+
+    protected abstract void sourceRowsRemoved(int[] adjusted, int index0, int index1, int[] selected);
+
+    protected abstract void sourceRowsChanged(int[] adjusted, int index0, int index1, int[] selected);
+}
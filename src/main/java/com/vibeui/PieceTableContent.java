@@ -0,0 +1,629 @@
+package com.vibeui;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.AbstractUndoableEdit;
+import javax.swing.undo.CannotRedoException;
+import javax.swing.undo.CannotUndoException;
+import javax.swing.undo.UndoableEdit;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class PieceTableContent implements AbstractDocument.Content {
+    static final int ADOPT_THRESHOLD = 4096;
+    private static final int MAX_ADD_BUFFER = 1 << 20;
+    private static final int MIN_MARK_PURGE = 64;
+    private static final int EDIT_LOG_SIZE = 256;
+
+    private AddBuffer addBuffer = new AddBuffer();
+    private final List<WeakReference<Mark>> marks = new ArrayList<>();
+    private int markPurgeThreshold = MIN_MARK_PURGE;
+    private final int[] editOffsets = new int[EDIT_LOG_SIZE];
+    private final int[] editDeltas = new int[EDIT_LOG_SIZE];
+    private final Object[] editUndos = new Object[EDIT_LOG_SIZE];
+    private final long[] editRestores = new long[EDIT_LOG_SIZE];
+    private long editBase;
+    private int editCount;
+    private int editLow;
+    private int editHigh;
+    private int editShift;
+    private boolean editRestoring;
+    private Piece root;
+    private int seed = 0x2545F491;
+
+    PieceTableContent() {
+        root = piece(addBuffer, addBuffer.append("\n"), 1);
+    }
+
+    @Override
+    public int length() {
+        return size(root);
+    }
+
+    int lineCount() {
+        return newlines(root);
+    }
+
+    int lineOfOffset(int offset) {
+        int line = 0;
+        Piece node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (offset < leftSize) {
+                node = node.left;
+                continue;
+            }
+            line += newlines(node.left);
+            offset -= leftSize;
+            if (offset < node.length) {
+                return line + node.buffer.newlinesBetween(node.start, node.start + offset);
+            }
+            line += node.newlines;
+            offset -= node.length;
+            node = node.right;
+        }
+        return Math.max(0, line - 1);
+    }
+
+    int lineStart(int line) {
+        if (line <= 0) {
+            return 0;
+        }
+        int offset = 0;
+        int remaining = line;
+        Piece node = root;
+        while (node != null) {
+            int leftLines = newlines(node.left);
+            if (remaining <= leftLines) {
+                node = node.left;
+                continue;
+            }
+            remaining -= leftLines;
+            offset += size(node.left);
+            if (remaining <= node.newlines) {
+                return offset + node.buffer.newlinePosition(node.start, remaining) - node.start + 1;
+            }
+            remaining -= node.newlines;
+            offset += node.length;
+            node = node.right;
+        }
+        return length();
+    }
+
+    int newlinesBetween(int from, int to) {
+        return countNewlines(root, from, to);
+    }
+
+    @Override
+    public Position createPosition(int offset) throws BadLocationException {
+        if (offset < 0 || offset > length()) {
+            throw new BadLocationException("Invalid position", offset);
+        }
+        if (marks.size() >= markPurgeThreshold) {
+            marks.removeIf(ref -> ref.get() == null);
+            markPurgeThreshold = Math.max(MIN_MARK_PURGE, marks.size() * 2);
+        }
+        Mark mark = new Mark(offset, editCount);
+        marks.add(new WeakReference<>(mark));
+        return mark;
+    }
+
+    @Override
+    public UndoableEdit insertString(int where, String str) throws BadLocationException {
+        if (where < 0 || where >= length()) {
+            throw new BadLocationException("Invalid insert", where);
+        }
+        if (str.isEmpty()) {
+            return null;
+        }
+        insert(where, str, -1);
+        return new InsertUndo(where, str.length());
+    }
+
+    @Override
+    public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+        if (where < 0 || nitems < 0 || where + nitems >= length()) {
+            throw new BadLocationException("Invalid remove", where + nitems);
+        }
+        if (nitems == 0) {
+            return null;
+        }
+        RemoveUndo edit = new RemoveUndo(where, getString(where, nitems));
+        edit.removal = delete(where, nitems, edit);
+        return edit;
+    }
+
+    @Override
+    public String getString(int where, int len) throws BadLocationException {
+        checkRange(where, len);
+        char[] chars = new char[len];
+        copy(root, where, where + len, chars, 0);
+        return new String(chars);
+    }
+
+    @Override
+    public void getChars(int where, int len, Segment txt) throws BadLocationException {
+        checkRange(where, len);
+        if (txt.isPartialReturn()) {
+            Piece node = root;
+            int offset = where;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (offset < leftSize) {
+                    node = node.left;
+                } else if (offset < leftSize + node.length) {
+                    break;
+                } else {
+                    offset -= leftSize + node.length;
+                    node = node.right;
+                }
+            }
+            if (node != null && node.buffer instanceof AddBuffer) {
+                int offsetInPiece = offset - size(node.left);
+                txt.array = ((AddBuffer) node.buffer).chars;
+                txt.offset = node.start + offsetInPiece;
+                txt.count = Math.min(len, node.length - offsetInPiece);
+                return;
+            }
+        }
+        char[] chars = new char[len];
+        copy(root, where, where + len, chars, 0);
+        txt.array = chars;
+        txt.offset = 0;
+        txt.count = len;
+    }
+
+    private void checkRange(int where, int len) throws BadLocationException {
+        if (where < 0 || len < 0 || where + len > length()) {
+            throw new BadLocationException("Invalid range", where + len);
+        }
+    }
+
+    // restores is the sequence number of the delete this insert reverses, or -1.
+    private void insert(int where, String str, long restores) {
+        Piece[] parts = split(root, where);
+        Piece left = parts[0];
+        if (str.length() >= ADOPT_THRESHOLD) {
+            TextBuffer buffer = new TextBuffer(str);
+            root = merge(merge(left, piece(buffer, 0, str.length())), parts[1]);
+        } else {
+            if (addBuffer.length + str.length() > MAX_ADD_BUFFER) {
+                addBuffer = new AddBuffer();
+            }
+            int start = addBuffer.append(str);
+            Piece last = rightmost(left);
+            if (last != null && last.buffer == addBuffer && last.start + last.length == start) {
+                extendRightmost(left, str.length(), addBuffer.newlinesBetween(start, start + str.length()));
+                root = merge(left, parts[1]);
+            } else {
+                root = merge(merge(left, piece(addBuffer, start, str.length())), parts[1]);
+            }
+        }
+        logEdit(where, str.length(), null, restores);
+    }
+
+    // Returns the delete's sequence number, which the edit able to reinsert the
+    // text passes back to insert so positions inside the range can be restored.
+    private long delete(int where, int nitems, UndoableEdit undo) {
+        Piece[] head = split(root, where);
+        Piece[] tail = split(head[1], nitems);
+        root = merge(head[0], tail[1]);
+        return logEdit(where, -nitems, undo, -1);
+    }
+
+    private long logEdit(int where, int delta, UndoableEdit undo, long restores) {
+        if (marks.isEmpty()) {
+            return -1;
+        }
+        if (editCount == EDIT_LOG_SIZE) {
+            marks.removeIf(ref -> {
+                Mark mark = ref.get();
+                if (mark == null) {
+                    return true;
+                }
+                mark.getOffset();
+                mark.applied = 0;
+                return false;
+            });
+            markPurgeThreshold = Math.max(MIN_MARK_PURGE, marks.size() * 2);
+            Arrays.fill(editUndos, null);
+            editBase += editCount;
+            editCount = 0;
+        }
+        // Offsets below editLow are untouched by the whole log, and offsets above
+        // editHigh just move by editShift; unless the log restores removals,
+        // most marks take one of these paths.
+        int end = delta > 0 ? where : where - delta;
+        if (editCount == 0) {
+            editLow = where;
+            editHigh = end;
+            editShift = 0;
+            editRestoring = false;
+        } else {
+            editLow = Math.min(editLow, where);
+            editHigh = Math.max(editHigh, end - editShift);
+        }
+        editShift += delta;
+        editRestoring |= restores >= 0;
+        editOffsets[editCount] = where;
+        editDeltas[editCount] = delta;
+        editUndos[editCount] = undo != null ? new WeakReference<>(undo) : null;
+        editRestores[editCount] = restores;
+        return editBase + editCount++;
+    }
+
+    private Piece piece(Buffer buffer, int start, int length) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return new Piece(buffer, start, length, buffer.newlinesBetween(start, start + length), seed);
+    }
+
+    private Piece[] split(Piece node, int offset) {
+        if (node == null) {
+            return new Piece[2];
+        }
+        int leftSize = size(node.left);
+        if (offset <= leftSize) {
+            Piece[] parts = split(node.left, offset);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+            return parts;
+        }
+        if (offset >= leftSize + node.length) {
+            Piece[] parts = split(node.right, offset - leftSize - node.length);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        int cut = offset - leftSize;
+        Piece tail = new Piece(node.buffer, node.start + cut, node.length - cut,
+                node.buffer.newlinesBetween(node.start + cut, node.start + node.length), node.priority);
+        tail.right = node.right;
+        update(tail);
+        node.length = cut;
+        node.newlines = node.buffer.newlinesBetween(node.start, node.start + cut);
+        node.right = null;
+        update(node);
+        return new Piece[] {node, tail};
+    }
+
+    private static Piece merge(Piece a, Piece b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Piece rightmost(Piece node) {
+        while (node != null && node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static void extendRightmost(Piece node, int length, int newlines) {
+        while (node != null) {
+            node.size += length;
+            node.subtreeNewlines += newlines;
+            if (node.right == null) {
+                node.length += length;
+                node.newlines += newlines;
+                return;
+            }
+            node = node.right;
+        }
+    }
+
+    private static int copy(Piece node, int from, int to, char[] dst, int dstBegin) {
+        if (node == null || from >= to) {
+            return dstBegin;
+        }
+        int leftSize = size(node.left);
+        if (from < leftSize) {
+            dstBegin = copy(node.left, from, Math.min(to, leftSize), dst, dstBegin);
+        }
+        int pieceFrom = Math.max(from - leftSize, 0);
+        int pieceTo = Math.min(to - leftSize, node.length);
+        if (pieceFrom < pieceTo) {
+            node.buffer.getChars(node.start + pieceFrom, node.start + pieceTo, dst, dstBegin);
+            dstBegin += pieceTo - pieceFrom;
+        }
+        int rightStart = leftSize + node.length;
+        if (to > rightStart) {
+            dstBegin = copy(node.right, Math.max(from - rightStart, 0), to - rightStart, dst, dstBegin);
+        }
+        return dstBegin;
+    }
+
+    private static int countNewlines(Piece node, int from, int to) {
+        if (node == null || from >= to) {
+            return 0;
+        }
+        if (from <= 0 && to >= node.size) {
+            return node.subtreeNewlines;
+        }
+        int leftSize = size(node.left);
+        int count = 0;
+        if (from < leftSize) {
+            count += countNewlines(node.left, from, Math.min(to, leftSize));
+        }
+        int pieceFrom = Math.max(from - leftSize, 0);
+        int pieceTo = Math.min(to - leftSize, node.length);
+        if (pieceFrom < pieceTo) {
+            count += node.buffer.newlinesBetween(node.start + pieceFrom, node.start + pieceTo);
+        }
+        int rightStart = leftSize + node.length;
+        if (to > rightStart) {
+            count += countNewlines(node.right, Math.max(from - rightStart, 0), to - rightStart);
+        }
+        return count;
+    }
+
+    private static int size(Piece node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int newlines(Piece node) {
+        return node == null ? 0 : node.subtreeNewlines;
+    }
+
+    private static void update(Piece node) {
+        node.size = size(node.left) + node.length + size(node.right);
+        node.subtreeNewlines = newlines(node.left) + node.newlines + newlines(node.right);
+    }
+
+    private static final class Piece {
+        final Buffer buffer;
+        final int start;
+        final int priority;
+        int length;
+        int newlines;
+        int size;
+        int subtreeNewlines;
+        Piece left;
+        Piece right;
+
+        Piece(Buffer buffer, int start, int length, int newlines, int priority) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+            this.newlines = newlines;
+            this.priority = priority;
+            this.size = length;
+            this.subtreeNewlines = newlines;
+        }
+    }
+
+    private abstract static class Buffer {
+        int[] newlineOffsets = new int[16];
+        int newlineCount;
+
+        abstract void getChars(int from, int to, char[] dst, int dstBegin);
+
+        void addNewline(int offset) {
+            if (newlineCount == newlineOffsets.length) {
+                newlineOffsets = Arrays.copyOf(newlineOffsets, newlineCount * 2);
+            }
+            newlineOffsets[newlineCount++] = offset;
+        }
+
+        int newlinesBetween(int from, int to) {
+            return lowerBound(to) - lowerBound(from);
+        }
+
+        int newlinePosition(int from, int nth) {
+            return newlineOffsets[lowerBound(from) + nth - 1];
+        }
+
+        private int lowerBound(int offset) {
+            int low = 0;
+            int high = newlineCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (newlineOffsets[mid] < offset) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class TextBuffer extends Buffer {
+        private final String text;
+
+        TextBuffer(String text) {
+            this.text = text;
+            for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+                addNewline(i);
+            }
+        }
+
+        @Override
+        void getChars(int from, int to, char[] dst, int dstBegin) {
+            text.getChars(from, to, dst, dstBegin);
+        }
+    }
+
+    private static final class AddBuffer extends Buffer {
+        char[] chars = new char[1024];
+        int length;
+
+        int append(String str) {
+            int start = length;
+            if (length + str.length() > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + str.length()));
+            }
+            str.getChars(0, str.length(), chars, length);
+            length += str.length();
+            for (int i = str.indexOf('\n'); i >= 0; i = str.indexOf('\n', i + 1)) {
+                addNewline(start + i);
+            }
+            return start;
+        }
+
+        @Override
+        void getChars(int from, int to, char[] dst, int dstBegin) {
+            System.arraycopy(chars, from, dst, dstBegin, to - from);
+        }
+    }
+
+    // Like GapContent, a position inside a removed range goes back to its old
+    // offset when the removal is undone. A mark remembers where it was before
+    // each undoable delete that covered it; undos run newest first, so these
+    // records form a stack ordered by sequence number.
+    private final class Mark implements Position {
+        int offset;
+        int applied;
+        List<Removal> removals;
+
+        Mark(int offset, int applied) {
+            this.offset = offset;
+            this.applied = applied;
+        }
+
+        @Override
+        public int getOffset() {
+            if (applied == 0 && editCount > 0 && (!editRestoring || removals == null || removals.isEmpty())) {
+                if (offset < editLow) {
+                    applied = editCount;
+                } else if (offset > editHigh) {
+                    offset += editShift;
+                    applied = editCount;
+                }
+            }
+            for (; applied < editCount; applied++) {
+                int where = editOffsets[applied];
+                int delta = editDeltas[applied];
+                if (delta > 0) {
+                    if (editRestores[applied] >= 0 && restore(editRestores[applied])) {
+                        continue;
+                    }
+                    if (offset > where || offset == where && where > 0) {
+                        offset += delta;
+                    }
+                } else {
+                    if (editUndos[applied] != null && offset >= where && offset <= where - delta) {
+                        remember(editBase + applied, (WeakReference<?>) editUndos[applied]);
+                    }
+                    if (offset > where) {
+                        offset = Math.max(where, offset + delta);
+                    }
+                }
+            }
+            return offset;
+        }
+
+        private void remember(long sequence, WeakReference<?> undo) {
+            if (undo.get() == null) {
+                return;
+            }
+            if (removals == null) {
+                removals = new ArrayList<>(2);
+            } else {
+                removals.removeIf(removal -> removal.undo.get() == null);
+            }
+            removals.add(new Removal(sequence, offset, undo));
+        }
+
+        private boolean restore(long sequence) {
+            if (removals == null) {
+                return false;
+            }
+            int last = removals.size() - 1;
+            while (last >= 0 && removals.get(last).sequence > sequence) {
+                removals.remove(last--);
+            }
+            if (last < 0 || removals.get(last).sequence != sequence) {
+                return false;
+            }
+            offset = removals.remove(last).offset;
+            return true;
+        }
+    }
+
+    private static final class Removal {
+        final long sequence;
+        final int offset;
+        final WeakReference<?> undo;
+
+        Removal(long sequence, int offset, WeakReference<?> undo) {
+            this.sequence = sequence;
+            this.offset = offset;
+            this.undo = undo;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class InsertUndo extends AbstractUndoableEdit {
+        private final int offset;
+        private final int length;
+        private String text;
+        private long removal = -1;
+
+        InsertUndo(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public void undo() throws CannotUndoException {
+            super.undo();
+            try {
+                text = getString(offset, length);
+                removal = delete(offset, length, this);
+            } catch (BadLocationException e) {
+                throw new CannotUndoException();
+            }
+        }
+
+        @Override
+        public void redo() throws CannotRedoException {
+            super.redo();
+            insert(offset, text, removal);
+            text = null;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class RemoveUndo extends AbstractUndoableEdit {
+        private final int offset;
+        private final String text;
+        private long removal = -1;
+
+        RemoveUndo(int offset, String text) {
+            this.offset = offset;
+            this.text = text;
+        }
+
+        @Override
+        public void undo() throws CannotUndoException {
+            super.undo();
+            insert(offset, text, removal);
+        }
+
+        @Override
+        public void redo() throws CannotRedoException {
+            super.redo();
+            removal = delete(offset, text.length(), this);
+        }
+    }
+}
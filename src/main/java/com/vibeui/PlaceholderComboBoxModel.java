@@ -0,0 +1,33 @@
+package com.vibeui;
+
+import javax.swing.*;
+
+@SuppressWarnings("serial")
+class PlaceholderComboBoxModel<E> extends AbstractListModel<E> implements ComboBoxModel<E> {
+    private final ComboBoxModel<E> selection;
+    private final E placeholder;
+
+    PlaceholderComboBoxModel(ComboBoxModel<E> selection, E placeholder) {
+        this.selection = selection;
+        this.placeholder = placeholder;
+    }
+
+    @Override
+    public int getSize() {
+        return 1;
+    }
+
+    @Override
+    public E getElementAt(int index) {
+        return index == 0 ? placeholder : null;
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selection.getSelectedItem();
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+    }
+}
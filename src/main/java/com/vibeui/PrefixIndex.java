@@ -0,0 +1,322 @@
+package com.vibeui;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+
+class PrefixIndex {
+    private final String[] texts;
+    private final int[] rows;
+    private final int[] wordRows;
+    private final int[] wordOffsets;
+    private final int[] words;
+    private final RangeMin rowRanks;
+    private final RangeMin wordRanks;
+
+    private PrefixIndex(String[] texts, int[] rows, int[] wordRows, int[] wordOffsets, int[] words) {
+        this.texts = texts;
+        this.rows = rows;
+        this.wordRows = wordRows;
+        this.wordOffsets = wordOffsets;
+        this.words = words;
+        long[] rowKeys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            rowKeys[i] = rankKey(rows[i]);
+        }
+        long[] wordKeys = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            wordKeys[i] = rankKey(wordRows[words[i]]);
+        }
+        this.rowRanks = new RangeMin(rowKeys);
+        this.wordRanks = new RangeMin(wordKeys);
+    }
+
+    static PrefixIndex build(String[] lowerTexts) {
+        int[] rows = new int[lowerTexts.length];
+        int wordCount = 0;
+        for (int row = 0; row < lowerTexts.length; row++) {
+            rows[row] = row;
+            wordCount += countWordStarts(lowerTexts[row]);
+        }
+        int[] wordRows = new int[wordCount];
+        int[] wordOffsets = new int[wordCount];
+        int word = 0;
+        for (int row = 0; row < lowerTexts.length; row++) {
+            String text = lowerTexts[row];
+            for (int i = 1; i < text.length(); i++) {
+                if (isWordStart(text, i)) {
+                    wordRows[word] = row;
+                    wordOffsets[word] = i;
+                    word++;
+                }
+            }
+        }
+        int[] words = new int[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = i;
+        }
+        IndexSorter.sort(rows, (a, b) -> lowerTexts[a].compareTo(lowerTexts[b]));
+        IndexSorter.sort(words, (a, b) -> compareRegions(lowerTexts[wordRows[a]], wordOffsets[a],
+                lowerTexts[wordRows[b]], wordOffsets[b]));
+        return new PrefixIndex(lowerTexts, rows, wordRows, wordOffsets, words);
+    }
+
+    int size() {
+        return texts.length;
+    }
+
+    String textAt(int row) {
+        return texts[row];
+    }
+
+    // Both paths pull the best-ranked entries of the matching range out of a
+    // range-minimum tree, so a one-letter prefix costs O(limit log n) rather
+    // than a walk over every entry that starts with it.
+    int[] search(String lowerPrefix, int limit) {
+        int from = bound(rows, false, lowerPrefix, false);
+        int to = bound(rows, false, lowerPrefix, true);
+        int[] result = rowRanks.smallest(from, to, limit, null);
+        if (result.length >= limit || lowerPrefix.isEmpty()) {
+            return result;
+        }
+
+        from = bound(words, true, lowerPrefix, false);
+        to = bound(words, true, lowerPrefix, true);
+        int[] innerRows = wordRanks.smallest(from, to, limit - result.length, lowerPrefix);
+        int[] combined = Arrays.copyOf(result, result.length + innerRows.length);
+        System.arraycopy(innerRows, 0, combined, result.length, innerRows.length);
+        return combined;
+    }
+
+    static int[] scan(IntFunction<String> lowerTextAt, int size, String lowerPrefix, int limit) {
+        RankedRows ranked = new RankedRows(limit);
+        RankedRows inner = new RankedRows(limit);
+        for (int row = 0; row < size; row++) {
+            String text = lowerTextAt.apply(row);
+            if (text.startsWith(lowerPrefix)) {
+                ranked.offer(row, text.length());
+            } else if (containsWordPrefix(text, lowerPrefix)) {
+                inner.offer(row, text.length());
+            }
+        }
+        int[] result = ranked.toArray();
+        int[] innerRows = inner.toArray();
+        int[] combined = Arrays.copyOf(result, Math.min(limit, result.length + innerRows.length));
+        System.arraycopy(innerRows, 0, combined, result.length, combined.length - result.length);
+        return combined;
+    }
+
+    int exactMatch(String lowerText) {
+        int from = bound(rows, false, lowerText, false);
+        return from < rows.length && texts[rows[from]].equals(lowerText) ? rows[from] : -1;
+    }
+
+    private int bound(int[] entries, boolean wordEntries, String prefix, boolean pastPrefix) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = wordEntries
+                    ? comparePrefix(texts[wordRows[entries[mid]]], wordOffsets[entries[mid]], prefix)
+                    : comparePrefix(texts[entries[mid]], 0, prefix);
+            if (cmp < 0 || (pastPrefix && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long rankKey(int row) {
+        return ((long) texts[row].length() << 32) | row;
+    }
+
+    private static int comparePrefix(String text, int offset, String prefix) {
+        int length = Math.min(text.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int diff = text.charAt(offset + i) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return text.length() - offset >= prefix.length() ? 0 : -1;
+    }
+
+    private static int compareRegions(String a, int offsetA, String b, int offsetB) {
+        int length = Math.min(a.length() - offsetA, b.length() - offsetB);
+        for (int i = 0; i < length; i++) {
+            int diff = a.charAt(offsetA + i) - b.charAt(offsetB + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (a.length() - offsetA) - (b.length() - offsetB);
+    }
+
+    private static boolean containsWordPrefix(String text, String prefix) {
+        for (int i = 1; i <= text.length() - prefix.length(); i++) {
+            if (isWordStart(text, i) && text.startsWith(prefix, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countWordStarts(String text) {
+        int count = 0;
+        for (int i = 1; i < text.length(); i++) {
+            if (isWordStart(text, i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isWordStart(String text, int i) {
+        return Character.isLetterOrDigit(text.charAt(i)) && !Character.isLetterOrDigit(text.charAt(i - 1));
+    }
+
+    private static final class RankedRows {
+        private final long[] heap;
+        private int size;
+
+        RankedRows(int limit) {
+            this.heap = new long[Math.max(0, limit)];
+        }
+
+        void offer(int row, int length) {
+            if (heap.length == 0) {
+                return;
+            }
+            long key = ((long) length << 32) | row;
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        int[] toArray() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            int[] result = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                result[i] = (int) keys[i];
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] >= heap[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && heap[left] > heap[largest]) {
+                    largest = left;
+                }
+                if (right < size && heap[right] > heap[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long value = heap[a];
+            heap[a] = heap[b];
+            heap[b] = value;
+        }
+    }
+
+    // Iterative segment tree over rank keys that answers "position of the
+    // smallest key in [from, to)"; repeatedly splitting around that position
+    // yields a range's keys in ascending order.
+    private final class RangeMin {
+        private final long[] keys;
+        private final int[] tree;
+
+        RangeMin(long[] keys) {
+            this.keys = keys;
+            int n = keys.length;
+            this.tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        // A word entry's row is one the prefix path already returned when its text
+        // starts with the prefix, and a row with the prefix at several word starts
+        // has equal keys that come out back to back; both are skipped.
+        int[] smallest(int from, int to, int limit, String skipRowsStartingWith) {
+            if (from >= to || limit <= 0) {
+                return new int[0];
+            }
+            int[] result = new int[Math.min(limit, to - from)];
+            int count = 0;
+            long lastKey = -1;
+            PriorityQueue<int[]> frontier = new PriorityQueue<>((a, b) -> Long.compare(keys[a[2]], keys[b[2]]));
+            frontier.add(new int[] {from, to, minIndex(from, to)});
+            while (count < result.length && !frontier.isEmpty()) {
+                int[] range = frontier.poll();
+                int position = range[2];
+                if (range[0] < position) {
+                    frontier.add(new int[] {range[0], position, minIndex(range[0], position)});
+                }
+                if (position + 1 < range[1]) {
+                    frontier.add(new int[] {position + 1, range[1], minIndex(position + 1, range[1])});
+                }
+                long key = keys[position];
+                int row = (int) key;
+                if (key == lastKey
+                        || skipRowsStartingWith != null && texts[row].startsWith(skipRowsStartingWith)) {
+                    continue;
+                }
+                lastKey = key;
+                result[count++] = row;
+            }
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        }
+
+        private int minIndex(int from, int to) {
+            int n = keys.length;
+            int best = -1;
+            for (int low = from + n, high = to + n; low < high; low >>>= 1, high >>>= 1) {
+                if ((low & 1) != 0) {
+                    best = better(best, tree[low++]);
+                }
+                if ((high & 1) != 0) {
+                    best = better(best, tree[--high]);
+                }
+            }
+            return best;
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            return keys[b] < keys[a] ? b : a;
+        }
+    }
+}
@@ -9,7 +9,6 @@ import java.util.function.Consumer;
 public class ProgressBar extends Component<ProgressBar> {
     private JProgressBar progressBar;
     private Consumer<Integer> changeHandler;
-    private SwingWorker<Void, Integer> worker;
 
     private ProgressBar(int min, int max, int value) {
         super(new JProgressBar(min, max));
@@ -170,48 +169,28 @@ public class ProgressBar extends Component<ProgressBar> {
     }
 
     public ProgressBar animateTo(int targetValue, int durationMillis) {
-        if (worker != null && !worker.isDone()) {
-            worker.cancel(true);
-        }
-
-        int startValue = progressBar.getValue();
-        int steps = Math.abs(targetValue - startValue);
-        int stepDelay = Math.max(1, durationMillis / Math.max(1, steps));
-
-        worker = new SwingWorker<Void, Integer>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                int currentValue = startValue;
-                int direction = targetValue > startValue ? 1 : -1;
-
-                while (currentValue != targetValue && !isCancelled()) {
-                    Thread.sleep(stepDelay);
-                    currentValue += direction;
-                    publish(currentValue);
-                }
-                return null;
-            }
-
-            @Override
-            protected void process(java.util.List<Integer> chunks) {
-                if (!chunks.isEmpty()) {
-                    int latestValue = chunks.get(chunks.size() - 1);
-                    progressBar.setValue(latestValue);
-                }
-            }
-        };
+        return animateTo(targetValue, durationMillis, Easing.linear());
+    }
 
-        worker.execute();
+    public ProgressBar animateTo(int targetValue, int durationMillis, Easing easing) {
+        Animator.onEdt(() -> {
+            int startValue = progressBar.getValue();
+            Animator.start(this, "value", durationMillis, easing,
+                    progress -> progressBar.setValue(Animator.lerp(startValue, targetValue, progress)));
+        });
         return this;
     }
 
     public ProgressBar stopAnimation() {
-        if (worker != null && !worker.isDone()) {
-            worker.cancel(true);
-        }
+        Animator.stop(this, "value");
         return this;
     }
 
+    // Call on the EDT, where animations run.
+    public boolean isAnimating() {
+        return Animator.isRunning(this, "value");
+    }
+
     public int getValue() {
         return progressBar.getValue();
     }
@@ -0,0 +1,130 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.Arrays;
+import java.util.function.Function;
+
+class ProjectionCellRenderer<T> implements ListCellRenderer<T>, ListDataListener {
+    private static final int CACHE_SIZE = 512;
+
+    private final ListCellRenderer<Object> delegate;
+    private Function<? super T, String> projection;
+    private Object[] cachedRows;
+    private String[] cachedTexts;
+    private int[] cachedIndices;
+    private ListModel<?> model;
+    private String placeholder = "";
+
+    @SuppressWarnings("unchecked")
+    ProjectionCellRenderer(ListCellRenderer<?> delegate, Function<? super T, String> projection) {
+        this.delegate = (ListCellRenderer<Object>) delegate;
+        this.projection = projection;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T prototype(String text) {
+        return (T) new Prototype(text);
+    }
+
+    void setProjection(Function<? super T, String> projection) {
+        this.projection = projection;
+        invalidate(0, Integer.MAX_VALUE);
+    }
+
+    void placeholder(String text) {
+        this.placeholder = text;
+        invalidate(0, Integer.MAX_VALUE);
+    }
+
+    void attach(ListModel<?> newModel) {
+        if (model != null) {
+            model.removeListDataListener(this);
+        }
+        model = newModel;
+        if (newModel != null) {
+            newModel.addListDataListener(this);
+        }
+        invalidate(0, Integer.MAX_VALUE);
+    }
+
+    String textOf(T value) {
+        return value == null ? placeholder : projection.apply(value);
+    }
+
+    String textAt(int index, T value) {
+        if (cachedIndices == null) {
+            cachedRows = new Object[CACHE_SIZE];
+            cachedTexts = new String[CACHE_SIZE];
+            cachedIndices = new int[CACHE_SIZE];
+            Arrays.fill(cachedIndices, -1);
+        }
+        int slot = index & (CACHE_SIZE - 1);
+        if (cachedIndices[slot] == index && cachedRows[slot] == value) {
+            return cachedTexts[slot];
+        }
+        String text = textOf(value);
+        cachedIndices[slot] = index;
+        cachedRows[slot] = value;
+        cachedTexts[slot] = text;
+        return text;
+    }
+
+    @Override
+    public java.awt.Component getListCellRendererComponent(JList<? extends T> list, T value, int index,
+                                                           boolean isSelected, boolean cellHasFocus) {
+        Object text;
+        if (value instanceof Prototype) {
+            text = value.toString();
+        } else {
+            text = index >= 0 ? textAt(index, value) : textOf(value);
+        }
+        return delegate.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        invalidate(Math.min(e.getIndex0(), e.getIndex1()), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        invalidate(Math.min(e.getIndex0(), e.getIndex1()), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        if (e.getIndex0() < 0 && e.getIndex1() < 0) {
+            return;
+        }
+        invalidate(Math.max(0, Math.min(e.getIndex0(), e.getIndex1())), Math.max(e.getIndex0(), e.getIndex1()));
+    }
+
+    private void invalidate(int fromIndex, int toIndex) {
+        if (cachedIndices == null) {
+            return;
+        }
+        for (int slot = 0; slot < CACHE_SIZE; slot++) {
+            int index = cachedIndices[slot];
+            if (index >= fromIndex && index <= toIndex) {
+                cachedIndices[slot] = -1;
+                cachedRows[slot] = null;
+                cachedTexts[slot] = null;
+            }
+        }
+    }
+
+    private static final class Prototype {
+        private final String text;
+
+        Prototype(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+@SuppressWarnings("serial")
+class RangeSelectionModel extends DefaultListSelectionModel {
+    private IntervalSet selection = new IntervalSet();
+    private IntervalSet reported = new IntervalSet();
+    private int anchorIndex = -1;
+    private int leadIndex = -1;
+    private boolean adjusting;
+    private int firstChanged = Integer.MAX_VALUE;
+    private int lastChanged = -1;
+    private int firstAdjusted = Integer.MAX_VALUE;
+    private int lastAdjusted = -1;
+
+    int[][] getSelectedRanges() {
+        return selection.toArray();
+    }
+
+    IntStream selectedIndexStream() {
+        IntervalSet ranges = new IntervalSet(selection);
+        return IntStream.range(0, ranges.intervalCount())
+                .flatMap(i -> IntStream.rangeClosed(ranges.start(i), ranges.end(i)));
+    }
+
+    int[][] takeChangedRanges() {
+        int[][] changed = IntervalSet.symmetricDifference(reported, selection);
+        reported = new IntervalSet(selection);
+        return changed;
+    }
+
+    @Override
+    public int getSelectedItemsCount() {
+        return (int) selection.size();
+    }
+
+    @Override
+    public int[] getSelectedIndices() {
+        int[] selected = new int[(int) selection.size()];
+        int count = 0;
+        for (int i = 0; i < selection.intervalCount(); i++) {
+            for (int index = selection.start(i); index <= selection.end(i); index++) {
+                selected[count++] = index;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public boolean isSelectedIndex(int index) {
+        return index >= 0 && selection.contains(index);
+    }
+
+    @Override
+    public int getMinSelectionIndex() {
+        return selection.min();
+    }
+
+    @Override
+    public int getMaxSelectionIndex() {
+        return selection.max();
+    }
+
+    @Override
+    public boolean isSelectionEmpty() {
+        return selection.isEmpty();
+    }
+
+    @Override
+    public int getAnchorSelectionIndex() {
+        return anchorIndex;
+    }
+
+    @Override
+    public int getLeadSelectionIndex() {
+        return leadIndex;
+    }
+
+    @Override
+    public void setSelectionMode(int selectionMode) {
+        int oldMode = getSelectionMode();
+        IntervalSet current = selection;
+        selection = new IntervalSet();
+        try {
+            super.setSelectionMode(selectionMode);
+        } finally {
+            selection = current;
+        }
+        if (oldMode > selectionMode && !selection.isEmpty()) {
+            int first = selection.start(0);
+            setSelectionInterval(first, selectionMode == SINGLE_SELECTION ? first : selection.end(0));
+        }
+    }
+
+    @Override
+    public boolean getValueIsAdjusting() {
+        return adjusting;
+    }
+
+    @Override
+    public void setValueIsAdjusting(boolean isAdjusting) {
+        if (isAdjusting != adjusting) {
+            adjusting = isAdjusting;
+            fireChanges();
+        }
+    }
+
+    @Override
+    public void setSelectionInterval(int index0, int index1) {
+        if (index0 == -1 || index1 == -1) {
+            return;
+        }
+        if (getSelectionMode() == SINGLE_SELECTION) {
+            index0 = index1;
+        }
+        updateLeadAnchor(index0, index1);
+        int from = Math.min(index0, index1);
+        int to = Math.max(index0, index1);
+        if (!selection.isEmpty()) {
+            markChanged(selection.min(), selection.max());
+        }
+        selection.clear();
+        selection.add(from, to);
+        markChanged(from, to);
+        fireChanges();
+    }
+
+    @Override
+    public void addSelectionInterval(int index0, int index1) {
+        if (index0 == -1 || index1 == -1) {
+            return;
+        }
+        int from = Math.min(index0, index1);
+        int to = Math.max(index0, index1);
+        if (getSelectionMode() == SINGLE_SELECTION
+                || (getSelectionMode() == SINGLE_INTERVAL_SELECTION
+                    && (selection.isEmpty() || to < selection.min() - 1 || from > selection.max() + 1))) {
+            setSelectionInterval(index0, index1);
+            return;
+        }
+        updateLeadAnchor(index0, index1);
+        if (selection.add(from, to)) {
+            markChanged(from, to);
+        }
+        fireChanges();
+    }
+
+    @Override
+    public void removeSelectionInterval(int index0, int index1) {
+        if (index0 == -1 || index1 == -1) {
+            return;
+        }
+        updateLeadAnchor(index0, index1);
+        removeRange(Math.min(index0, index1), Math.max(index0, index1));
+        fireChanges();
+    }
+
+    @Override
+    public void clearSelection() {
+        if (!selection.isEmpty()) {
+            removeRange(selection.min(), selection.max());
+            fireChanges();
+        }
+    }
+
+    @Override
+    public void setAnchorSelectionIndex(int anchorIndex) {
+        updateLeadAnchor(anchorIndex, leadIndex);
+        fireChanges();
+    }
+
+    @Override
+    public void setLeadSelectionIndex(int newLead) {
+        int anchor = anchorIndex;
+        if (newLead == -1) {
+            if (anchor == -1) {
+                updateLeadAnchor(anchor, newLead);
+                fireChanges();
+            }
+            return;
+        } else if (anchor == -1) {
+            return;
+        }
+        int oldLead = leadIndex == -1 ? newLead : leadIndex;
+        boolean shouldSelect = selection.contains(anchor);
+        if (getSelectionMode() == SINGLE_SELECTION) {
+            anchor = newLead;
+            shouldSelect = true;
+        }
+        int oldMin = Math.min(anchorIndex, oldLead);
+        int oldMax = Math.max(anchorIndex, oldLead);
+        int newMin = Math.min(anchor, newLead);
+        int newMax = Math.max(anchor, newLead);
+        updateLeadAnchor(anchor, newLead);
+        if (shouldSelect) {
+            selection.remove(oldMin, oldMax);
+            selection.add(newMin, newMax);
+        } else {
+            selection.add(oldMin, oldMax);
+            selection.remove(newMin, newMax);
+        }
+        markChanged(Math.min(oldMin, newMin), Math.max(oldMax, newMax));
+        fireChanges();
+    }
+
+    @Override
+    public void moveLeadSelectionIndex(int newLead) {
+        if (newLead == -1 && anchorIndex != -1) {
+            return;
+        }
+        updateLeadAnchor(anchorIndex, newLead);
+        fireChanges();
+    }
+
+    @Override
+    public void insertIndexInterval(int index, int length, boolean before) {
+        int insertFrom = before ? index : index + 1;
+        boolean selectInserted = getSelectionMode() != SINGLE_SELECTION && selection.contains(index);
+        int oldMax = selection.max();
+        selection.insertGap(insertFrom, length);
+        if (selectInserted) {
+            selection.add(insertFrom, insertFrom + length - 1);
+        }
+        if (oldMax >= insertFrom || selectInserted) {
+            markChanged(insertFrom, Math.max(oldMax + length, insertFrom + length - 1));
+        }
+        int lead = leadIndex > index || (before && leadIndex == index) ? leadIndex + length : leadIndex;
+        int anchor = anchorIndex > index || (before && anchorIndex == index) ? anchorIndex + length : anchorIndex;
+        if (lead != leadIndex || anchor != anchorIndex) {
+            updateLeadAnchor(anchor, lead);
+        }
+        fireChanges();
+    }
+
+    @Override
+    public void removeIndexInterval(int index0, int index1) {
+        int from = Math.min(index0, index1);
+        int to = Math.max(index0, index1);
+        int oldMax = selection.max();
+        selection.closeGap(from, to);
+        if (oldMax >= from) {
+            markChanged(from, oldMax);
+        }
+        int lead = shiftForRemoval(leadIndex, from, to);
+        int anchor = shiftForRemoval(anchorIndex, from, to);
+        if (lead != leadIndex || anchor != anchorIndex) {
+            updateLeadAnchor(anchor, lead);
+        }
+        fireChanges();
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        RangeSelectionModel clone = (RangeSelectionModel) super.clone();
+        clone.selection = new IntervalSet(selection);
+        clone.reported = new IntervalSet(reported);
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + " " + (adjusting ? "~" : "=") + Arrays.deepToString(getSelectedRanges());
+    }
+
+    private void removeRange(int from, int to) {
+        if (getSelectionMode() != MULTIPLE_INTERVAL_SELECTION && from > selection.min() && to < selection.max()) {
+            to = selection.max();
+        }
+        if (selection.remove(from, to)) {
+            markChanged(from, to);
+        }
+    }
+
+    private static int shiftForRemoval(int index, int from, int to) {
+        if (index == 0 && from == 0) {
+            return index;
+        } else if (index > to) {
+            return index - (to - from + 1);
+        } else if (index >= from) {
+            return from - 1;
+        }
+        return index;
+    }
+
+    private void updateLeadAnchor(int anchor, int lead) {
+        if (anchorIndex != anchor) {
+            markChanged(anchorIndex, anchorIndex);
+            markChanged(anchor, anchor);
+        }
+        if (leadIndex != lead) {
+            markChanged(leadIndex, leadIndex);
+            markChanged(lead, lead);
+        }
+        anchorIndex = anchor;
+        leadIndex = lead;
+    }
+
+    private void markChanged(int from, int to) {
+        if (from < 0 || to < from) {
+            return;
+        }
+        firstChanged = Math.min(firstChanged, from);
+        lastChanged = Math.max(lastChanged, to);
+        firstAdjusted = Math.min(firstAdjusted, from);
+        lastAdjusted = Math.max(lastAdjusted, to);
+    }
+
+    private void fireChanges() {
+        if (adjusting) {
+            if (lastChanged >= 0) {
+                int first = firstChanged;
+                int last = lastChanged;
+                firstChanged = Integer.MAX_VALUE;
+                lastChanged = -1;
+                fireValueChanged(first, last, true);
+            }
+        } else if (lastAdjusted >= 0) {
+            int first = firstAdjusted;
+            int last = lastAdjusted;
+            firstChanged = firstAdjusted = Integer.MAX_VALUE;
+            lastChanged = lastAdjusted = -1;
+            fireValueChanged(first, last, false);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.List;
+
+@SuppressWarnings("serial")
+class RingBufferListModel<E> extends AbstractListModel<E> {
+    private final Object[] buffer;
+    private int head;
+    private int size;
+
+    RingBufferListModel(int capacity) {
+        this.buffer = new Object[Math.max(1, capacity)];
+    }
+
+    int getCapacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getElementAt(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return (E) buffer[(head + index) % buffer.length];
+    }
+
+    void appendAll(List<? extends E> batch) {
+        int capacity = buffer.length;
+        int incoming = batch.size();
+        if (incoming == 0) {
+            return;
+        }
+        int skipped = Math.max(0, incoming - capacity);
+        int added = incoming - skipped;
+        int evicted = Math.max(0, size + added - capacity);
+
+        if (evicted > 0) {
+            for (int i = 0; i < evicted; i++) {
+                buffer[(head + i) % capacity] = null;
+            }
+            head = (head + evicted) % capacity;
+            size -= evicted;
+            fireIntervalRemoved(this, 0, evicted - 1);
+        }
+
+        int firstAdded = size;
+        for (int i = skipped; i < incoming; i++) {
+            buffer[(head + size) % capacity] = batch.get(i);
+            size++;
+        }
+        fireIntervalAdded(this, firstAdded, size - 1);
+    }
+
+    void clear() {
+        if (size == 0) {
+            return;
+        }
+        int oldSize = size;
+        Arrays.fill(buffer, null);
+        head = 0;
+        size = 0;
+        fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+}
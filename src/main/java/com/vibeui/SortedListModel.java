@@ -0,0 +1,189 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+@SuppressWarnings("serial")
+class SortedListModel<E> extends PermutationListModel<E> {
+    private static final int BULK_THRESHOLD = 256;
+
+    private final Comparator<? super E> comparator;
+    private final Collator collator;
+    private final Function<? super E, String> textFunction;
+    private final IndexSorter.IndexComparator rowComparator;
+    private Object[] rows = new Object[0];
+    private CollationKey[] keys;
+    private int rowCount;
+
+    SortedListModel(ListModel<E> source, Comparator<? super E> comparator) {
+        super(source);
+        this.comparator = comparator;
+        this.collator = null;
+        this.textFunction = null;
+        this.rowComparator = this::compareRows;
+        resort();
+    }
+
+    SortedListModel(ListModel<E> source, Collator collator, Function<? super E, String> textFunction) {
+        super(source);
+        this.comparator = null;
+        this.collator = collator;
+        this.textFunction = textFunction;
+        this.rowComparator = (a, b) -> keys[a].compareTo(keys[b]);
+        resort();
+    }
+
+    boolean isCollated() {
+        return collator != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compareRows(int a, int b) {
+        return comparator.compare((E) rows[a], (E) rows[b]);
+    }
+
+    void resort() {
+        resort(captureSelection());
+    }
+
+    private void resort(int[] selected) {
+        rowCount = source.getSize();
+        rows = new Object[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = source.getElementAt(i);
+        }
+        if (collator != null) {
+            keys = new CollationKey[rowCount];
+            computeKeys(0, rowCount);
+        }
+        int[] order = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            order[i] = i;
+        }
+        IndexSorter.sort(order, rowComparator);
+        applyIndices(order, selected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void computeKeys(int from, int to) {
+        if (to - from < IndexSorter.PARALLEL_THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                keys[i] = collationKey(collator, (E) rows[i]);
+            }
+            return;
+        }
+        ThreadLocal<Collator> collators = ThreadLocal.withInitial(() -> (Collator) collator.clone());
+        IntStream.range(from, to).parallel().forEach(i -> keys[i] = collationKey(collators.get(), (E) rows[i]));
+    }
+
+    private CollationKey collationKey(Collator rowCollator, E row) {
+        String text = row == null ? null : textFunction.apply(row);
+        return rowCollator.getCollationKey(text == null ? "" : text);
+    }
+
+    private void insertRows(int index0, int count) {
+        if (rowCount + count > rows.length) {
+            int capacity = Math.max(rowCount + count, rows.length + (rows.length >> 1));
+            rows = Arrays.copyOf(rows, capacity);
+            if (keys != null) {
+                keys = Arrays.copyOf(keys, capacity);
+            }
+        }
+        System.arraycopy(rows, index0, rows, index0 + count, rowCount - index0);
+        if (keys != null) {
+            System.arraycopy(keys, index0, keys, index0 + count, rowCount - index0);
+        }
+        rowCount += count;
+        loadRows(index0, index0 + count - 1);
+    }
+
+    private void removeRows(int index0, int index1) {
+        int count = index1 - index0 + 1;
+        System.arraycopy(rows, index1 + 1, rows, index0, rowCount - index1 - 1);
+        Arrays.fill(rows, rowCount - count, rowCount, null);
+        if (keys != null) {
+            System.arraycopy(keys, index1 + 1, keys, index0, rowCount - index1 - 1);
+            Arrays.fill(keys, rowCount - count, rowCount, null);
+        }
+        rowCount -= count;
+    }
+
+    private void loadRows(int index0, int index1) {
+        for (int i = index0; i <= index1; i++) {
+            rows[i] = source.getElementAt(i);
+        }
+        if (keys != null) {
+            computeKeys(index0, index1 + 1);
+        }
+    }
+
+    private int[] sortedRange(int index0, int index1) {
+        int[] range = new int[index1 - index0 + 1];
+        for (int i = 0; i < range.length; i++) {
+            range[i] = index0 + i;
+        }
+        IndexSorter.sort(range, rowComparator);
+        return range;
+    }
+
+    private void insertSorted(int[] order, int[] added) {
+        int[] positions = new int[added.length];
+        int[] merged;
+        if (added.length == 1) {
+            int position = IndexSorter.upperBound(order, order.length, added[0], rowComparator);
+            merged = new int[order.length + 1];
+            System.arraycopy(order, 0, merged, 0, position);
+            merged[position] = added[0];
+            System.arraycopy(order, position, merged, position + 1, order.length - position);
+            positions[0] = position;
+        } else {
+            merged = IndexSorter.merge(order, added, rowComparator, positions);
+        }
+        applyInsertions(merged, positions, positions.length);
+    }
+
+    @Override
+    protected void sourceRowsInserted(int[] adjusted, int index0, int index1, int[] selected) {
+        insertRows(index0, index1 - index0 + 1);
+        if (index1 - index0 + 1 > BULK_THRESHOLD) {
+            resort(selected);
+            return;
+        }
+        insertSorted(adjusted, sortedRange(index0, index1));
+    }
+
+    @Override
+    protected void sourceRowsRemoved(int[] adjusted, int index0, int index1, int[] selected) {
+        removeRows(index0, index1);
+        int[] positions = positionsOf(index0, index1);
+        applyRemovals(adjusted, positions, positions.length);
+    }
+
+    @Override
+    protected void sourceRowsChanged(int[] adjusted, int index0, int index1, int[] selected) {
+        int changed = index1 - index0 + 1;
+        if (rowCount != source.getSize() || changed > BULK_THRESHOLD) {
+            resort(selected);
+            return;
+        }
+        if (changed <= 0) {
+            return;
+        }
+        int[] positions = positionsOf(index0, index1);
+        int[] unchanged = new int[adjusted.length - positions.length];
+        int size = 0;
+        for (int row : adjusted) {
+            if (row < index0 || row > index1) {
+                unchanged[size++] = row;
+            }
+        }
+        applyRemovals(unchanged, positions, positions.length);
+        loadRows(index0, index1);
+        insertSorted(unchanged, sortedRange(index0, index1));
+    }
+}
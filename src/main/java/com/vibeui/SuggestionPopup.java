@@ -0,0 +1,251 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+import java.awt.Dimension;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+final class SuggestionPopup implements DocumentListener, KeyListener {
+    private static final int CACHE_SIZE = 64;
+    private static final int VISIBLE_ROWS = 8;
+
+    private final JTextField field;
+    private final Function<String, CompletableFuture<List<String>>> provider;
+    private final Timer debounce;
+    private final Map<String, List<String>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private final JList<String> list = new JList<>();
+    private final JPopupMenu popup = new JPopupMenu();
+    private CompletableFuture<List<String>> inFlight;
+    private int generation;
+    private boolean accepting;
+
+    SuggestionPopup(JTextField field, Function<String, CompletableFuture<List<String>>> provider, int debounceMillis) {
+        this.field = field;
+        this.provider = provider;
+        this.debounce = new Timer(Math.max(1, debounceMillis), e -> lookup());
+        debounce.setRepeats(false);
+        list.setFocusable(false);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    accept(list.getModel().getElementAt(index));
+                }
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        popup.setFocusable(false);
+        popup.add(scrollPane);
+        field.getDocument().addDocumentListener(this);
+        field.addPropertyChangeListener("document", e -> {
+            if (e.getOldValue() instanceof Document) {
+                ((Document) e.getOldValue()).removeDocumentListener(this);
+            }
+            if (e.getNewValue() instanceof Document) {
+                ((Document) e.getNewValue()).addDocumentListener(this);
+            }
+        });
+        field.addKeyListener(this);
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                hide();
+            }
+        });
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        queryChanged();
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        queryChanged();
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    // Any edit makes the running lookup stale; answers that the cache can
+    // give are shown at once, everything else waits for the debounce.
+    private void queryChanged() {
+        generation++;
+        cancelInFlight();
+        if (accepting) {
+            debounce.stop();
+            return;
+        }
+        String query = field.getText();
+        if (query.isEmpty()) {
+            debounce.stop();
+            hide();
+            return;
+        }
+        List<String> cached = cached(query);
+        if (cached != null) {
+            debounce.stop();
+            show(cached);
+        } else {
+            debounce.restart();
+        }
+    }
+
+    private void lookup() {
+        String query = field.getText();
+        if (query.isEmpty()) {
+            return;
+        }
+        int lookupGeneration = generation;
+        CompletableFuture<List<String>> future;
+        try {
+            future = provider.apply(query);
+        } catch (RuntimeException e) {
+            return;
+        }
+        if (future == null) {
+            return;
+        }
+        inFlight = future;
+        future.whenComplete((results, error) -> SwingUtilities.invokeLater(() -> {
+            if (inFlight == future) {
+                inFlight = null;
+            }
+            if (error != null || results == null) {
+                return;
+            }
+            cache.put(query, Collections.unmodifiableList(new ArrayList<>(results)));
+            if (lookupGeneration == generation && query.equals(field.getText())) {
+                show(cache.get(query));
+            }
+        }));
+    }
+
+    private List<String> cached(String query) {
+        List<String> exact = cache.get(query);
+        if (exact != null) {
+            return exact;
+        }
+        for (int length = query.length() - 1; length > 0; length--) {
+            List<String> broader = cache.get(query.substring(0, length));
+            if (broader != null) {
+                String lowerQuery = FilteredListModel.lowerCase(query);
+                List<String> refined = new ArrayList<>();
+                for (String item : broader) {
+                    if (FilteredListModel.containsIgnoreCase(item, lowerQuery)) {
+                        refined.add(item);
+                    }
+                }
+                List<String> result = Collections.unmodifiableList(refined);
+                cache.put(query, result);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private void cancelInFlight() {
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+    }
+
+    private void show(List<String> items) {
+        if (items.isEmpty()) {
+            hide();
+            return;
+        }
+        list.setListData(items.toArray(new String[0]));
+        list.setVisibleRowCount(Math.min(VISIBLE_ROWS, items.size()));
+        list.clearSelection();
+        if (!field.isShowing() || !field.isFocusOwner()) {
+            return;
+        }
+        popup.setPreferredSize(null);
+        popup.setPopupSize(new Dimension(field.getWidth(), popup.getPreferredSize().height));
+        if (popup.isVisible()) {
+            popup.pack();
+        } else {
+            popup.show(field, 0, field.getHeight());
+        }
+    }
+
+    private void hide() {
+        popup.setVisible(false);
+    }
+
+    private void accept(String value) {
+        accepting = true;
+        try {
+            field.setText(value);
+        } finally {
+            accepting = false;
+        }
+        hide();
+    }
+
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (!popup.isVisible()) {
+            return;
+        }
+        int size = list.getModel().getSize();
+        int index = list.getSelectedIndex();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                list.setSelectedIndex(Math.min(size - 1, index + 1));
+                list.ensureIndexIsVisible(list.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                list.setSelectedIndex(Math.max(0, index - 1));
+                list.ensureIndexIsVisible(list.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (index >= 0) {
+                    accept(list.getSelectedValue());
+                    e.consume();
+                }
+                break;
+            case KeyEvent.VK_ESCAPE:
+                hide();
+                e.consume();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void keyTyped(KeyEvent e) {
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+    }
+}
@@ -0,0 +1,418 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.plaf.ColorUIResource;
+import javax.swing.plaf.UIResource;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Caret;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Highlighter;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.text.TabExpander;
+import javax.swing.text.Utilities;
+import javax.swing.text.View;
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.beans.PropertyChangeListener;
+import java.util.Arrays;
+
+// Colors text from the highlighter rather than a replacement UI, so the look
+// and feel keeps its own views: the area's foreground is made transparent and
+// the text is drawn in token colors once the other highlights are painted.
+final class SyntaxHighlighter implements DocumentListener {
+    private static final int MARGIN_LINES = 200;
+    private static final int PAINT_LINES = 1000;
+    private static final int BUDGET_CHECK_INTERVAL = 256;
+    private static final long FRAME_BUDGET_NANOS = 6_000_000L;
+    private static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+    private static final SyntaxTokenizer.Tokens NO_TOKENS = (start, end, color) -> {
+    };
+
+    private final JTextArea textArea;
+    private final SyntaxTokenizer tokenizer;
+    private final Segment lineText = new Segment();
+    private final Segment paintText = new Segment();
+    private final TokenList tokens = new TokenList();
+    private final SyntaxLayer layer = new SyntaxLayer();
+    private final PropertyChangeListener documentListener = e -> setDocument((Document) e.getNewValue());
+    private final PropertyChangeListener foregroundListener = e -> foregroundChanged();
+    private Highlighter previousHighlighter;
+    private Color textColor;
+    private boolean hidingForeground;
+    private Document document;
+    private int[] endStates = new int[256];
+    private int validLines;
+    private int lastPaintedLine;
+    private int guessedLine = -1;
+    private boolean warming;
+    private int tokenLine = -1;
+    private int tokenState;
+
+    SyntaxHighlighter(JTextArea textArea, SyntaxTokenizer tokenizer) {
+        this.textArea = textArea;
+        this.tokenizer = tokenizer;
+    }
+
+    void install() {
+        setDocument(textArea.getDocument());
+        textArea.addPropertyChangeListener("document", documentListener);
+        textArea.addPropertyChangeListener("foreground", foregroundListener);
+        previousHighlighter = textArea.getHighlighter();
+        swapHighlighter(layer);
+        textColor = textArea.getForeground();
+        updateForeground();
+    }
+
+    void uninstall() {
+        textArea.removePropertyChangeListener("document", documentListener);
+        textArea.removePropertyChangeListener("foreground", foregroundListener);
+        setDocument(null);
+        swapHighlighter(previousHighlighter);
+        if (textColor != null) {
+            textArea.setForeground(textColor);
+        }
+    }
+
+    // The caret's selection highlight belongs to the old highlighter, so the
+    // selection is collapsed around the swap and then restored on the new one.
+    private void swapHighlighter(Highlighter highlighter) {
+        Caret caret = textArea.getCaret();
+        int dot = caret.getDot();
+        int mark = caret.getMark();
+        caret.setDot(mark);
+        textArea.setHighlighter(highlighter);
+        caret.moveDot(dot);
+    }
+
+    private void foregroundChanged() {
+        if (!hidingForeground) {
+            textColor = textArea.getForeground();
+            updateForeground();
+        }
+    }
+
+    private void updateForeground() {
+        if (textColor == null) {
+            return;
+        }
+        Color foreground = isColoring() ? transparentLike(textColor) : textColor;
+        if (!foreground.equals(textArea.getForeground())) {
+            hidingForeground = true;
+            try {
+                textArea.setForeground(foreground);
+            } finally {
+                hidingForeground = false;
+            }
+        }
+    }
+
+    private static Color transparentLike(Color color) {
+        return color instanceof UIResource ? new ColorUIResource(TRANSPARENT) : TRANSPARENT;
+    }
+
+    // Bidirectional text is laid out by glyph views that draw in visual
+    // order, so such documents are left to the plain views.
+    private boolean isColoring() {
+        return document != null && !Boolean.TRUE.equals(document.getProperty("i18n"));
+    }
+
+    private void setDocument(Document newDocument) {
+        if (document != null) {
+            document.removeDocumentListener(this);
+        }
+        document = newDocument;
+        validLines = 0;
+        guessedLine = -1;
+        tokenLine = -1;
+        if (document != null) {
+            document.addDocumentListener(this);
+        }
+        updateForeground();
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        linesChanged(e);
+        updateForeground();
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        linesChanged(e);
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    // Shifts the recorded line states past the edit, then re-tokenizes from the
+    // edited line until a line ends in the same state it did before the edit.
+    private void linesChanged(DocumentEvent e) {
+        tokenLine = -1;
+        Element root = document.getDefaultRootElement();
+        int line = root.getElementIndex(e.getOffset());
+        if (line >= validLines) {
+            return;
+        }
+        DocumentEvent.ElementChange change = e.getChange(root);
+        int delta = change == null ? 0 : change.getChildrenAdded().length - change.getChildrenRemoved().length;
+        int known = validLines;
+        int changedEnd = line;
+        if (delta > 0) {
+            int previousEnd = endStates[line];
+            ensureCapacity(known + delta);
+            System.arraycopy(endStates, line + 1, endStates, line + 1 + delta, known - line - 1);
+            known += delta;
+            changedEnd = line + delta;
+            endStates[changedEnd] = previousEnd;
+        } else if (delta < 0) {
+            int removed = -delta;
+            if (known <= line + removed) {
+                validLines = line;
+                textArea.repaint();
+                return;
+            }
+            endStates[line] = endStates[line + removed];
+            System.arraycopy(endStates, line + 1 + removed, endStates, line + 1, known - line - 1 - removed);
+            known -= removed;
+        }
+        int limit = Math.max(changedEnd, lastPaintedLine) + MARGIN_LINES;
+        int state = stateBefore(line);
+        for (int i = line; i < known; i++) {
+            if (i > limit) {
+                validLines = i;
+                textArea.repaint();
+                return;
+            }
+            int end = tokenizeLine(root, i, state, NO_TOKENS);
+            if (i >= changedEnd && end == endStates[i]) {
+                validLines = known;
+                if (i > changedEnd) {
+                    textArea.repaint();
+                }
+                return;
+            }
+            endStates[i] = end;
+            state = end;
+        }
+        validLines = known;
+        textArea.repaint();
+    }
+
+    private int stateBefore(int line) {
+        return line == 0 ? SyntaxTokenizer.INITIAL_STATE : endStates[line - 1];
+    }
+
+    // Lines close to the known states are caught up on the spot; a line far
+    // past them is painted from the initial state while the states are filled
+    // in over later frames, then repainted.
+    private int paintState(Element root, int line) {
+        if (line <= validLines) {
+            return stateBefore(line);
+        }
+        if (line - validLines > PAINT_LINES) {
+            guessedLine = Math.max(guessedLine, line);
+            scheduleWarmUp();
+            return SyntaxTokenizer.INITIAL_STATE;
+        }
+        advanceStates(root, line, Long.MAX_VALUE);
+        return stateBefore(line);
+    }
+
+    private void scheduleWarmUp() {
+        if (!warming) {
+            warming = true;
+            FrameClock.requestFrame(this::warmUp);
+        }
+    }
+
+    private void warmUp() {
+        warming = false;
+        if (document == null || guessedLine < 0) {
+            return;
+        }
+        Element root = document.getDefaultRootElement();
+        int target = Math.min(guessedLine, root.getElementCount());
+        if (advanceStates(root, target, FRAME_BUDGET_NANOS)) {
+            scheduleWarmUp();
+            return;
+        }
+        guessedLine = -1;
+        tokenLine = -1;
+        textArea.repaint();
+    }
+
+    // Returns true when the budget ran out before the states reached the line.
+    private boolean advanceStates(Element root, int line, long budgetNanos) {
+        ensureCapacity(line);
+        long start = System.nanoTime();
+        while (validLines < line) {
+            endStates[validLines] = tokenizeLine(root, validLines, stateBefore(validLines), NO_TOKENS);
+            validLines++;
+            if (validLines % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() - start >= budgetNanos) {
+                return validLines < line;
+            }
+        }
+        return false;
+    }
+
+    private void ensureCapacity(int lines) {
+        if (lines > endStates.length) {
+            endStates = Arrays.copyOf(endStates, Math.max(lines, endStates.length * 2));
+        }
+    }
+
+    private int tokenizeLine(Element root, int line, int state, SyntaxTokenizer.Tokens sink) {
+        Element element = root.getElement(line);
+        int start = element.getStartOffset();
+        int end = Math.min(element.getEndOffset(), document.getLength());
+        try {
+            document.getText(start, end - start, lineText);
+        } catch (BadLocationException e) {
+            return state;
+        }
+        if (lineText.count > 0 && lineText.array[lineText.offset + lineText.count - 1] == '\n') {
+            lineText.count--;
+        }
+        return tokenizer.tokenize(lineText, state, sink);
+    }
+
+    // Colors only the range being painted, so styling work follows the visible
+    // lines. The selected range is skipped because the view draws it itself.
+    private void paintTokens(Graphics2D g, int p0, int p1, Shape bounds, View view) throws BadLocationException {
+        int end = Math.min(p1, document.getLength());
+        if (p0 >= end) {
+            return;
+        }
+        Element root = document.getDefaultRootElement();
+        int line = root.getElementIndex(p0);
+        lastPaintedLine = line;
+        int state = paintState(root, line);
+        if (line != tokenLine || state != tokenState) {
+            tokens.clear();
+            tokenizeLine(root, line, state, tokens);
+            tokenLine = line;
+            tokenState = state;
+        }
+        int lineStart = root.getElement(line).getStartOffset();
+        TabExpander tabs = view instanceof TabExpander ? (TabExpander) view
+                : view.getParent() instanceof TabExpander ? (TabExpander) view.getParent() : null;
+        FontMetrics metrics = textArea.getFontMetrics(textArea.getFont());
+        Rectangle origin = view.modelToView(p0, bounds, Position.Bias.Forward).getBounds();
+        float x = origin.x;
+        float y = origin.y + metrics.getAscent();
+        boolean selectionVisible = textArea.getCaret().isSelectionVisible();
+        int selectionStart = selectionVisible ? textArea.getSelectionStart() : 0;
+        int selectionEnd = selectionVisible ? textArea.getSelectionEnd() : 0;
+        Span span = new Span(g, metrics, tabs, y, selectionStart, selectionEnd);
+        int position = p0;
+        for (int k = 0; k < tokens.count && position < end; k++) {
+            int start = Math.max(lineStart + tokens.starts[k], position);
+            int stop = Math.min(lineStart + tokens.ends[k], end);
+            if (start >= stop) {
+                continue;
+            }
+            x = span.draw(x, position, start, textColor);
+            x = span.draw(x, start, stop, tokens.colors[k]);
+            position = stop;
+        }
+        span.draw(x, position, end, textColor);
+    }
+
+    private final class Span {
+        private final Graphics2D g;
+        private final FontMetrics metrics;
+        private final TabExpander tabs;
+        private final float y;
+        private final int selectionStart;
+        private final int selectionEnd;
+
+        Span(Graphics2D g, FontMetrics metrics, TabExpander tabs, float y, int selectionStart, int selectionEnd) {
+            this.g = g;
+            this.metrics = metrics;
+            this.tabs = tabs;
+            this.y = y;
+            this.selectionStart = selectionStart;
+            this.selectionEnd = selectionEnd;
+        }
+
+        float draw(float x, int from, int to, Color color) throws BadLocationException {
+            int selectedFrom = Math.max(from, Math.min(selectionStart, to));
+            int selectedTo = Math.max(selectedFrom, Math.min(selectionEnd, to));
+            x = paint(x, from, selectedFrom, color);
+            x = skip(x, selectedFrom, selectedTo);
+            return paint(x, selectedTo, to, color);
+        }
+
+        private float paint(float x, int from, int to, Color color) throws BadLocationException {
+            if (from >= to) {
+                return x;
+            }
+            document.getText(from, to - from, paintText);
+            g.setColor(color);
+            return Utilities.drawTabbedText(paintText, x, y, g, tabs, from);
+        }
+
+        private float skip(float x, int from, int to) throws BadLocationException {
+            if (from >= to) {
+                return x;
+            }
+            document.getText(from, to - from, paintText);
+            return x + Utilities.getTabbedTextWidth(paintText, metrics, x, tabs, from);
+        }
+    }
+
+    private final class SyntaxLayer extends DefaultHighlighter {
+        @Override
+        public void paintLayeredHighlights(Graphics g, int p0, int p1, Shape viewBounds,
+                                           JTextComponent editor, View view) {
+            super.paintLayeredHighlights(g, p0, p1, viewBounds, editor, view);
+            if (!editor.isEnabled() || !isColoring() || textColor == null || !(g instanceof Graphics2D)) {
+                return;
+            }
+            try {
+                paintTokens((Graphics2D) g, p0, p1, viewBounds, view);
+            } catch (BadLocationException e) {
+                // The view is painting a stale layout; the next paint catches up.
+            }
+        }
+    }
+
+    private static final class TokenList implements SyntaxTokenizer.Tokens {
+        int[] starts = new int[32];
+        int[] ends = new int[32];
+        Color[] colors = new Color[32];
+        int count;
+
+        void clear() {
+            Arrays.fill(colors, 0, count, null);
+            count = 0;
+        }
+
+        @Override
+        public void add(int start, int end, Color color) {
+            if (start >= end || color == null) {
+                return;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                colors = Arrays.copyOf(colors, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            colors[count] = color;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.vibeui;
+
+import java.awt.Color;
+
+public interface SyntaxTokenizer {
+    int INITIAL_STATE = 0;
+
+    // Returns the lexer state at the end of the line; lines after an edit are
+    // re-tokenized only until this state matches what was recorded before.
+    int tokenize(CharSequence line, int state, Tokens tokens);
+
+    interface Tokens {
+        void add(int start, int end, Color color);
+    }
+
+    static SyntaxTokenizer json() {
+        return SyntaxTokenizers.JSON;
+    }
+
+    static SyntaxTokenizer sql() {
+        return SyntaxTokenizers.SQL;
+    }
+
+    static SyntaxTokenizer log() {
+        return SyntaxTokenizers.LOG;
+    }
+}
@@ -0,0 +1,243 @@
+package com.vibeui;
+
+import java.awt.Color;
+import java.util.Locale;
+import java.util.Set;
+
+final class SyntaxTokenizers {
+    private static final Color STRING = new Color(0x067D17);
+    private static final Color KEY = new Color(0x871094);
+    private static final Color NUMBER = new Color(0x1750EB);
+    private static final Color KEYWORD = new Color(0x0033B3);
+    private static final Color COMMENT = new Color(0x8C8C8C);
+    private static final Color ERROR = new Color(0xC72222);
+    private static final Color WARNING = new Color(0xB36A00);
+
+    private static final int IN_STRING = 1;
+    private static final int IN_COMMENT = 2;
+
+    private static final Set<String> SQL_KEYWORDS = Set.of(
+            "SELECT", "FROM", "WHERE", "AND", "OR", "NOT", "INSERT", "INTO", "VALUES", "UPDATE", "SET",
+            "DELETE", "CREATE", "TABLE", "DROP", "ALTER", "ADD", "JOIN", "LEFT", "RIGHT", "INNER", "OUTER",
+            "FULL", "CROSS", "ON", "AS", "ORDER", "GROUP", "BY", "HAVING", "LIMIT", "OFFSET", "DISTINCT",
+            "UNION", "ALL", "NULL", "IS", "IN", "LIKE", "BETWEEN", "CASE", "WHEN", "THEN", "ELSE", "END",
+            "EXISTS", "PRIMARY", "KEY", "FOREIGN", "REFERENCES", "INDEX", "VIEW", "DEFAULT", "TRUE",
+            "FALSE", "ASC", "DESC", "WITH", "RETURNING");
+
+    static final SyntaxTokenizer JSON = SyntaxTokenizers::json;
+    static final SyntaxTokenizer SQL = SyntaxTokenizers::sql;
+    static final SyntaxTokenizer LOG = SyntaxTokenizers::log;
+
+    private SyntaxTokenizers() {
+    }
+
+    private static int json(CharSequence line, int state, SyntaxTokenizer.Tokens tokens) {
+        int n = line.length();
+        int i = 0;
+        while (i < n) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                int end = stringEnd(line, i + 1, '"', false);
+                end = end < 0 ? n : end;
+                int next = end;
+                while (next < n && Character.isWhitespace(line.charAt(next))) {
+                    next++;
+                }
+                tokens.add(i, end, next < n && line.charAt(next) == ':' ? KEY : STRING);
+                i = end;
+            } else if (c == '-' || Character.isDigit(c)) {
+                int end = i + 1;
+                while (end < n && isNumberPart(line.charAt(end))) {
+                    end++;
+                }
+                tokens.add(i, end, NUMBER);
+                i = end;
+            } else if (Character.isLetter(c)) {
+                int end = wordEnd(line, i);
+                String word = line.subSequence(i, end).toString();
+                if (word.equals("true") || word.equals("false") || word.equals("null")) {
+                    tokens.add(i, end, KEYWORD);
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return SyntaxTokenizer.INITIAL_STATE;
+    }
+
+    private static int sql(CharSequence line, int state, SyntaxTokenizer.Tokens tokens) {
+        int n = line.length();
+        int i = 0;
+        if (state == IN_COMMENT) {
+            int end = indexOf(line, "*/", 0);
+            if (end < 0) {
+                tokens.add(0, n, COMMENT);
+                return IN_COMMENT;
+            }
+            tokens.add(0, end + 2, COMMENT);
+            i = end + 2;
+        } else if (state == IN_STRING) {
+            int end = stringEnd(line, 0, '\'', true);
+            if (end < 0) {
+                tokens.add(0, n, STRING);
+                return IN_STRING;
+            }
+            tokens.add(0, end, STRING);
+            i = end;
+        }
+        while (i < n) {
+            char c = line.charAt(i);
+            char next = i + 1 < n ? line.charAt(i + 1) : 0;
+            if (c == '-' && next == '-') {
+                tokens.add(i, n, COMMENT);
+                return SyntaxTokenizer.INITIAL_STATE;
+            } else if (c == '/' && next == '*') {
+                int end = indexOf(line, "*/", i + 2);
+                if (end < 0) {
+                    tokens.add(i, n, COMMENT);
+                    return IN_COMMENT;
+                }
+                tokens.add(i, end + 2, COMMENT);
+                i = end + 2;
+            } else if (c == '\'') {
+                int end = stringEnd(line, i + 1, '\'', true);
+                if (end < 0) {
+                    tokens.add(i, n, STRING);
+                    return IN_STRING;
+                }
+                tokens.add(i, end, STRING);
+                i = end;
+            } else if (Character.isDigit(c)) {
+                int end = i + 1;
+                while (end < n && (Character.isDigit(line.charAt(end)) || line.charAt(end) == '.')) {
+                    end++;
+                }
+                tokens.add(i, end, NUMBER);
+                i = end;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = wordEnd(line, i);
+                if (SQL_KEYWORDS.contains(line.subSequence(i, end).toString().toUpperCase(Locale.ROOT))) {
+                    tokens.add(i, end, KEYWORD);
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return SyntaxTokenizer.INITIAL_STATE;
+    }
+
+    private static int log(CharSequence line, int state, SyntaxTokenizer.Tokens tokens) {
+        int n = line.length();
+        int i = 0;
+        while (i < n && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        if ((i > 0 && startsWith(line, i, "at ")) || startsWith(line, i, "Caused by:")) {
+            tokens.add(i, n, COMMENT);
+            return SyntaxTokenizer.INITIAL_STATE;
+        }
+        if (i < n && Character.isDigit(line.charAt(i))) {
+            int end = i;
+            while (end < n && isTimestampPart(line.charAt(end))) {
+                end++;
+            }
+            while (end > i && line.charAt(end - 1) == ' ') {
+                end--;
+            }
+            tokens.add(i, end, COMMENT);
+            i = end;
+        }
+        while (i < n) {
+            if (!Character.isLetter(line.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = wordEnd(line, i);
+            Color color = levelColor(line.subSequence(i, end).toString());
+            if (color != null) {
+                tokens.add(i, end, color);
+                break;
+            }
+            i = end;
+        }
+        return SyntaxTokenizer.INITIAL_STATE;
+    }
+
+    private static Color levelColor(String word) {
+        switch (word) {
+            case "ERROR":
+            case "FATAL":
+            case "SEVERE":
+                return ERROR;
+            case "WARN":
+            case "WARNING":
+                return WARNING;
+            case "INFO":
+                return NUMBER;
+            case "DEBUG":
+            case "TRACE":
+            case "FINE":
+                return COMMENT;
+            default:
+                return null;
+        }
+    }
+
+    // Returns the offset just past the closing quote, or -1 if the line ends first.
+    private static int stringEnd(CharSequence line, int from, char quote, boolean doubledEscape) {
+        int n = line.length();
+        int i = from;
+        while (i < n) {
+            char c = line.charAt(i);
+            if (c == quote) {
+                if (doubledEscape && i + 1 < n && line.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i += !doubledEscape && c == '\\' ? 2 : 1;
+        }
+        return -1;
+    }
+
+    private static int wordEnd(CharSequence line, int from) {
+        int end = from + 1;
+        while (end < line.length() && (Character.isLetterOrDigit(line.charAt(end)) || line.charAt(end) == '_')) {
+            end++;
+        }
+        return end;
+    }
+
+    private static int indexOf(CharSequence line, String target, int from) {
+        for (int i = from; i <= line.length() - target.length(); i++) {
+            if (startsWith(line, i, target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(CharSequence line, int at, String prefix) {
+        if (at + prefix.length() > line.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line.charAt(at + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNumberPart(char c) {
+        return Character.isDigit(c) || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-';
+    }
+
+    private static boolean isTimestampPart(char c) {
+        return Character.isDigit(c) || c == '-' || c == ':' || c == '.' || c == ',' || c == '/'
+                || c == 'T' || c == 'Z' || c == '+' || c == ' ';
+    }
+}
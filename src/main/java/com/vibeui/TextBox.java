@@ -1,21 +1,36 @@
 package com.vibeui;
 
 import javax.swing.*;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
 import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.Transferable;
 import java.awt.event.FocusListener;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 
 public class TextBox extends Component<TextBox> {
+    private static final String FILE_VIEW_PROTOTYPE = "X".repeat(160);
+
     private String text;
     private String placeholder;
     private boolean editable = true;
     private boolean multiline = false;
-    private List<Consumer<String>> changeHandlers = new ArrayList<>();
+    private TextChangeDispatcher changes;
     private JScrollPane scrollPane;
+    private MappedFileModel fileModel;
+    private ConsoleBuffer console;
+    private TextSearch search;
+    private SyntaxHighlighter syntax;
+    private TextHistory history;
+    private TextLoader loader;
 
     public TextBox() {
         this(false);
@@ -31,7 +46,21 @@ public class TextBox extends Component<TextBox> {
             scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         }
         
-        setupChangeListener();
+        this.changes = new TextChangeDispatcher((JTextComponent) swingComponent);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TextBox(MappedFileModel fileModel) {
+        super(new JList<>(fileModel));
+        this.multiline = true;
+        this.editable = false;
+        this.fileModel = fileModel;
+        JList<String> lines = (JList<String>) swingComponent;
+        lines.setFont(UIManager.getFont("TextArea.font"));
+        lines.setPrototypeCellValue(FILE_VIEW_PROTOTYPE);
+        scrollPane = new JScrollPane(lines);
+        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
     }
 
     public TextBox(String text) {
@@ -46,58 +75,95 @@ public class TextBox extends Component<TextBox> {
 
     public TextBox text(String text) {
         this.text = text;
-        if (multiline) {
-            ((JTextArea) swingComponent).setText(text);
-        } else {
-            ((JTextField) swingComponent).setText(text);
+        if (changes != null) {
+            changes.setText(text);
         }
         return this;
     }
 
     public TextBox placeholder(String placeholder) {
         this.placeholder = placeholder;
-        if (!multiline) {
-            ((JTextField) swingComponent).setToolTipText(placeholder);
-        } else {
-            ((JTextArea) swingComponent).setToolTipText(placeholder);
-        }
+        swingComponent.setToolTipText(placeholder);
         return this;
     }
 
     public TextBox editable(boolean editable) {
         this.editable = editable;
-        if (multiline) {
-            ((JTextArea) swingComponent).setEditable(editable);
-        } else {
-            ((JTextField) swingComponent).setEditable(editable);
+        if (swingComponent instanceof JTextComponent) {
+            ((JTextComponent) swingComponent).setEditable(editable);
         }
         return this;
     }
 
     public TextBox rows(int rows) {
-        if (multiline) {
+        if (swingComponent instanceof JTextArea) {
             ((JTextArea) swingComponent).setRows(rows);
         }
         return this;
     }
 
     public TextBox columns(int columns) {
-        if (multiline) {
+        if (swingComponent instanceof JTextArea) {
             ((JTextArea) swingComponent).setColumns(columns);
-        } else {
+        } else if (swingComponent instanceof JTextField) {
             ((JTextField) swingComponent).setColumns(columns);
         }
         return this;
     }
 
+    public TextBox largeDocument() {
+        if (swingComponent instanceof JTextArea) {
+            JTextArea area = (JTextArea) swingComponent;
+            if (!(area.getDocument() instanceof LargeTextDocument)) {
+                String current = area.getText();
+                if (changes != null) {
+                    changes.beginBulkEdit();
+                }
+                try {
+                    area.setLineWrap(false);
+                    area.setDocument(new LargeTextDocument());
+                    area.setText(current);
+                } finally {
+                    if (changes != null) {
+                        changes.endBulkEdit();
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    // The load replaces everything, so the current text is dropped rather than
+    // copied into the new document.
+    private void emptyLargeDocument() {
+        if (swingComponent instanceof JTextArea
+                && !(((JTextArea) swingComponent).getDocument() instanceof LargeTextDocument)) {
+            ((JTextArea) swingComponent).setLineWrap(false);
+            ((JTextArea) swingComponent).setDocument(new LargeTextDocument());
+        }
+    }
+
     public TextBox wordWrap(boolean wrap) {
-        if (multiline) {
+        if (swingComponent instanceof JTextArea
+                && !(((JTextArea) swingComponent).getDocument() instanceof LargeTextDocument)) {
             ((JTextArea) swingComponent).setWrapStyleWord(wrap);
             ((JTextArea) swingComponent).setLineWrap(wrap);
         }
         return this;
     }
 
+    public TextBox syntax(SyntaxTokenizer tokenizer) {
+        if (syntax != null) {
+            syntax.uninstall();
+            syntax = null;
+        }
+        if (tokenizer != null && swingComponent instanceof JTextArea) {
+            syntax = new SyntaxHighlighter((JTextArea) swingComponent, tokenizer);
+            syntax.install();
+        }
+        return this;
+    }
+
     public TextBox scrollBars(boolean vertical, boolean horizontal) {
         if (multiline && scrollPane != null) {
             scrollPane.setVerticalScrollBarPolicy(
@@ -111,7 +177,23 @@ public class TextBox extends Component<TextBox> {
     }
 
     public TextBox onChange(Consumer<String> handler) {
-        changeHandlers.add(handler);
+        if (changes != null) {
+            changes.addChangeHandler(handler);
+        }
+        return this;
+    }
+
+    public TextBox onEdit(Consumer<TextEdit> handler) {
+        if (changes != null) {
+            changes.addEditHandler(handler);
+        }
+        return this;
+    }
+
+    public TextBox onChangeCoalesced(Consumer<String> handler, Duration interval) {
+        if (changes != null) {
+            changes.addCoalescedHandler(handler, interval);
+        }
         return this;
     }
 
@@ -120,42 +202,233 @@ public class TextBox extends Component<TextBox> {
         return this;
     }
 
-    private void setupChangeListener() {
-        DocumentListener docListener = new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) {
-                notifyChangeHandlers();
-            }
+    public String getText() {
+        if (swingComponent instanceof JTextComponent) {
+            return ((JTextComponent) swingComponent).getText();
+        }
+        return "";
+    }
+
+    public TextBox append(CharSequence text) {
+        if (console != null) {
+            console.append(text);
+        } else if (swingComponent instanceof JTextArea) {
+            ((JTextArea) swingComponent).append(text.toString());
+        }
+        return this;
+    }
+
+    public TextBox appendLine(CharSequence line) {
+        return append(line + "\n");
+    }
+
+    public TextBox clear() {
+        if (console != null) {
+            console.clear();
+        } else {
+            text("");
+        }
+        return this;
+    }
+
+    public TextBox search(String query) {
+        if (search() != null) {
+            search.find(query);
+        }
+        return this;
+    }
 
-            @Override
-            public void removeUpdate(DocumentEvent e) {
-                notifyChangeHandlers();
+    public TextBox searchRegex(String regex) {
+        if (search() != null) {
+            search.findRegex(regex);
+        }
+        return this;
+    }
+
+    public TextBox onSearchMatches(Consumer<int[][]> handler) {
+        if (search() != null) {
+            search.onMatches(handler);
+        }
+        return this;
+    }
+
+    public TextBox onSearchComplete(Consumer<Integer> handler) {
+        if (search() != null) {
+            search.onComplete(handler);
+        }
+        return this;
+    }
+
+    public TextBox onSearchError(Consumer<Exception> handler) {
+        if (search() != null) {
+            search.onError(handler);
+        }
+        return this;
+    }
+
+    public TextBox clearSearch() {
+        if (search != null) {
+            search.clear();
+        }
+        return this;
+    }
+
+    public TextBox replaceAll(String replacement) {
+        if (search != null) {
+            search.replaceAll(replacement);
+        }
+        return this;
+    }
+
+    private TextSearch search() {
+        if (search == null && swingComponent instanceof JTextComponent) {
+            search = new TextSearch((JTextComponent) swingComponent, changes);
+        }
+        return search;
+    }
+
+    public TextBox undoable(long maxBytes) {
+        if (history == null && swingComponent instanceof JTextComponent) {
+            history = new TextHistory((JTextComponent) swingComponent, maxBytes);
+            history.install();
+        }
+        return this;
+    }
+
+    public TextBox undo() {
+        if (history != null) {
+            history.undo();
+        }
+        return this;
+    }
+
+    public TextBox redo() {
+        if (history != null) {
+            history.redo();
+        }
+        return this;
+    }
+
+    public boolean canUndo() {
+        return history != null && history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history != null && history.canRedo();
+    }
+
+    public int getUndoCount() {
+        return history != null ? history.undoCount() : 0;
+    }
+
+    public int getRedoCount() {
+        return history != null ? history.redoCount() : 0;
+    }
+
+    public long getUndoHistoryBytes() {
+        return history != null ? history.historyBytes() : 0;
+    }
+
+    public TextBox loadAsync(Reader reader) {
+        return loadAsync(() -> reader, false, -1);
+    }
+
+    public TextBox loadAsync(Path path) {
+        return loadAsync(path, StandardCharsets.UTF_8);
+    }
+
+    public TextBox loadAsync(Path path, Charset charset) {
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            size = -1;
+        }
+        return loadAsync(() -> Files.newBufferedReader(path, charset), true, size);
+    }
+
+    private TextBox loadAsync(Callable<Reader> source, boolean closeReader, long expectedChars) {
+        if (loader() != null) {
+            loader.cancel();
+            emptyLargeDocument();
+            if (history != null) {
+                history.beginGroup();
             }
+            loader.start(source, closeReader, expectedChars, true, () -> {
+                if (history != null) {
+                    history.endGroup();
+                    history.clear();
+                }
+            });
+        }
+        return this;
+    }
+
+    public TextBox pasteAsync() {
+        Transferable contents;
+        try {
+            contents = Toolkit.getDefaultToolkit().getSystemClipboard().getContents(null);
+        } catch (HeadlessException | IllegalStateException e) {
+            return this;
+        }
+        DataFlavor flavor = contents == null ? null : DataFlavor.selectBestTextFlavor(contents.getTransferDataFlavors());
+        if (flavor != null) {
+            pasteAsync(() -> flavor.getReaderForText(contents), true);
+        }
+        return this;
+    }
+
+    public TextBox pasteAsync(Reader reader) {
+        return pasteAsync(() -> reader, false);
+    }
 
-            @Override
-            public void changedUpdate(DocumentEvent e) {
-                notifyChangeHandlers();
+    private TextBox pasteAsync(Callable<Reader> source, boolean closeReader) {
+        if (loader() != null) {
+            loader.cancel();
+            if (history != null) {
+                history.beginGroup();
             }
-        };
+            loader.start(source, closeReader, -1, false, () -> {
+                if (history != null) {
+                    history.endGroup();
+                }
+            });
+        }
+        return this;
+    }
 
-        if (multiline) {
-            ((JTextArea) swingComponent).getDocument().addDocumentListener(docListener);
-        } else {
-            ((JTextField) swingComponent).getDocument().addDocumentListener(docListener);
+    public TextBox cancelLoad() {
+        if (loader != null) {
+            loader.cancel();
         }
+        return this;
     }
 
-    private void notifyChangeHandlers() {
-        String currentText = getText();
-        changeHandlers.forEach(handler -> handler.accept(currentText));
+    public boolean isLoading() {
+        return loader != null && loader.isLoading();
     }
 
-    public String getText() {
-        if (multiline) {
-            return ((JTextArea) swingComponent).getText();
-        } else {
-            return ((JTextField) swingComponent).getText();
+    private TextLoader loader() {
+        if (loader == null && swingComponent instanceof JTextComponent) {
+            loader = new TextLoader((JTextComponent) swingComponent, changes);
         }
+        return loader;
+    }
+
+    public TextBox onLoadProgress(Consumer<Double> handler) {
+        if (fileModel != null) {
+            fileModel.onProgress(handler);
+        } else if (loader() != null) {
+            loader.onProgress(handler);
+        }
+        return this;
+    }
+
+    public TextBox onLoadError(Consumer<Exception> handler) {
+        if (loader() != null) {
+            loader.onError(handler);
+        }
+        return this;
     }
 
     @Override
@@ -204,4 +477,21 @@ public class TextBox extends Component<TextBox> {
     public static TextBox createMultiline(String text) {
         return new TextBox(text, true);
     }
+
+    public static TextBox console(int maxLines) {
+        TextBox textBox = new TextBox(true).largeDocument().editable(false);
+        textBox.console = new ConsoleBuffer((JTextArea) textBox.swingComponent, textBox.scrollPane,
+                textBox.changes, maxLines);
+        return textBox;
+    }
+
+    public static TextBox viewFile(Path path) throws IOException {
+        return viewFile(path, StandardCharsets.UTF_8);
+    }
+
+    // Throws IllegalArgumentException for charsets that do not encode ASCII
+    // as single bytes, such as UTF-16 and UTF-32.
+    public static TextBox viewFile(Path path, Charset charset) throws IOException {
+        return new TextBox(new MappedFileModel(path, charset));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.vibeui;
+
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+final class TextChangeDispatcher implements DocumentListener {
+    private final JTextComponent textComponent;
+    private final List<Consumer<String>> changeHandlers = new ArrayList<>();
+    private final List<Consumer<TextEdit>> editHandlers = new ArrayList<>();
+    private final List<Timer> coalescedTimers = new ArrayList<>();
+    private int programmatic;
+    private boolean changedInBulk;
+
+    TextChangeDispatcher(JTextComponent textComponent) {
+        this.textComponent = textComponent;
+        textComponent.getDocument().addDocumentListener(this);
+        textComponent.addPropertyChangeListener("document", e -> {
+            if (e.getOldValue() instanceof Document) {
+                ((Document) e.getOldValue()).removeDocumentListener(this);
+            }
+            if (e.getNewValue() instanceof Document) {
+                ((Document) e.getNewValue()).addDocumentListener(this);
+            }
+            if (length(e.getOldValue()) > 0 || length(e.getNewValue()) > 0) {
+                textChanged();
+            }
+        });
+    }
+
+    void addChangeHandler(Consumer<String> handler) {
+        changeHandlers.add(handler);
+    }
+
+    void addEditHandler(Consumer<TextEdit> handler) {
+        editHandlers.add(handler);
+    }
+
+    void addCoalescedHandler(Consumer<String> handler, Duration interval) {
+        int delay = (int) Math.max(1, Math.min(Integer.MAX_VALUE, interval.toMillis()));
+        Timer timer = new Timer(delay, e -> handler.accept(textComponent.getText()));
+        timer.setRepeats(false);
+        coalescedTimers.add(timer);
+    }
+
+    void setText(String text) {
+        programmatic++;
+        try {
+            textComponent.setText(text);
+        } finally {
+            programmatic--;
+        }
+        if (programmatic > 0) {
+            changedInBulk = true;
+            return;
+        }
+        changedInBulk = false;
+        restartCoalescedTimers();
+        notifyChangeHandlers(text == null ? "" : text);
+    }
+
+    void beginBulkEdit() {
+        programmatic++;
+    }
+
+    // The text is only built once, at the end, and only if the bulk edit
+    // changed the document and someone asked for it.
+    void endBulkEdit() {
+        programmatic--;
+        if (programmatic == 0 && changedInBulk) {
+            changedInBulk = false;
+            restartCoalescedTimers();
+            if (!changeHandlers.isEmpty()) {
+                notifyChangeHandlers(textComponent.getText());
+            }
+        }
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        dispatch(TextEdit.Type.INSERT, e);
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        dispatch(TextEdit.Type.REMOVE, e);
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+        dispatch(TextEdit.Type.CHANGE, e);
+    }
+
+    private void dispatch(TextEdit.Type type, DocumentEvent e) {
+        if (!editHandlers.isEmpty()) {
+            TextEdit edit = new TextEdit(type, e.getOffset(), e.getLength(), e.getDocument());
+            editHandlers.forEach(handler -> handler.accept(edit));
+        }
+        textChanged();
+    }
+
+    // Also reached when the document itself is swapped, which fires no
+    // document events.
+    private void textChanged() {
+        if (programmatic > 0) {
+            changedInBulk = true;
+            return;
+        }
+        restartCoalescedTimers();
+        if (!changeHandlers.isEmpty()) {
+            notifyChangeHandlers(textComponent.getText());
+        }
+    }
+
+    private static int length(Object document) {
+        return document instanceof Document ? ((Document) document).getLength() : 0;
+    }
+
+    // Each edit pushes the deadline back, so a coalesced handler runs once
+    // the text has been quiet for its whole interval.
+    private void restartCoalescedTimers() {
+        for (Timer timer : coalescedTimers) {
+            timer.restart();
+        }
+    }
+
+    private void notifyChangeHandlers(String text) {
+        changeHandlers.forEach(handler -> handler.accept(text));
+    }
+}
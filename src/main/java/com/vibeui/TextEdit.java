@@ -0,0 +1,62 @@
+package com.vibeui;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+public final class TextEdit {
+    public enum Type {
+        INSERT,
+        REMOVE,
+        CHANGE
+    }
+
+    private final Type type;
+    private final int offset;
+    private final int length;
+    private final Document document;
+    private String text;
+
+    TextEdit(Type type, int offset, int length, Document document) {
+        this.type = type;
+        this.offset = offset;
+        this.length = length;
+        this.document = document;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int documentLength() {
+        return document.getLength();
+    }
+
+    // The inserted text, read only while the handler is running. Removals and
+    // attribute changes return ""; length() still gives the removed length.
+    public String text() {
+        if (text == null) {
+            text = "";
+            if (type == Type.INSERT) {
+                try {
+                    text = document.getText(offset, length);
+                } catch (BadLocationException e) {
+                    text = "";
+                }
+            }
+        }
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return type + "[" + offset + "," + length + "]";
+    }
+}
@@ -1,22 +1,25 @@
 package com.vibeui;
 
 import javax.swing.*;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
 import java.awt.event.FocusListener;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class TextField extends Component<TextField> {
+    private static final Duration DEFAULT_SUGGESTION_DELAY = Duration.ofMillis(150);
+
     private String text;
     private String placeholder;
     private boolean editable = true;
-    private List<Consumer<String>> changeHandlers = new ArrayList<>();
+    private TextChangeDispatcher changes;
+    private SuggestionPopup suggestions;
 
     public TextField() {
         super(new JTextField());
-        setupChangeListener();
+        this.changes = new TextChangeDispatcher((JTextField) swingComponent);
     }
 
     public TextField(String text) {
@@ -26,7 +29,7 @@ public class TextField extends Component<TextField> {
 
     public TextField text(String text) {
         this.text = text;
-        ((JTextField) swingComponent).setText(text);
+        changes.setText(text);
         return this;
     }
 
@@ -48,37 +51,35 @@ public class TextField extends Component<TextField> {
     }
 
     public TextField onChange(Consumer<String> handler) {
-        changeHandlers.add(handler);
+        changes.addChangeHandler(handler);
         return this;
     }
 
-    public TextField onFocus(FocusListener listener) {
-        ((JTextField) swingComponent).addFocusListener(listener);
+    public TextField onEdit(Consumer<TextEdit> handler) {
+        changes.addEditHandler(handler);
         return this;
     }
 
-    private void setupChangeListener() {
-        ((JTextField) swingComponent).getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) {
-                notifyChangeHandlers();
-            }
+    public TextField onChangeCoalesced(Consumer<String> handler, Duration interval) {
+        changes.addCoalescedHandler(handler, interval);
+        return this;
+    }
 
-            @Override
-            public void removeUpdate(DocumentEvent e) {
-                notifyChangeHandlers();
-            }
+    public TextField suggestions(Function<String, CompletableFuture<List<String>>> provider) {
+        return suggestions(provider, DEFAULT_SUGGESTION_DELAY);
+    }
 
-            @Override
-            public void changedUpdate(DocumentEvent e) {
-                notifyChangeHandlers();
-            }
-        });
+    public TextField suggestions(Function<String, CompletableFuture<List<String>>> provider, Duration debounce) {
+        if (suggestions == null && provider != null) {
+            int delay = (int) Math.max(1, Math.min(Integer.MAX_VALUE, debounce.toMillis()));
+            suggestions = new SuggestionPopup((JTextField) swingComponent, provider, delay);
+        }
+        return this;
     }
 
-    private void notifyChangeHandlers() {
-        String currentText = ((JTextField) swingComponent).getText();
-        changeHandlers.forEach(handler -> handler.accept(currentText));
+    public TextField onFocus(FocusListener listener) {
+        ((JTextField) swingComponent).addFocusListener(listener);
+        return this;
     }
 
     public String getText() {
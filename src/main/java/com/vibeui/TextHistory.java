@@ -0,0 +1,395 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.UndoableEditEvent;
+import javax.swing.event.UndoableEditListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.DocumentFilter;
+import javax.swing.text.JTextComponent;
+import java.awt.HeadlessException;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records edits as plain inserted/removed spans instead of holding the
+// document's own undoable edits, so memory is bounded by the spans' text.
+final class TextHistory extends DocumentFilter implements DocumentListener, UndoableEditListener {
+    private static final int SPAN_OVERHEAD = 48;
+    private static final int STEP_OVERHEAD = 40;
+    private static final long COALESCE_NANOS = 1_000_000_000L;
+
+    private final JTextComponent textComponent;
+    private final long maxBytes;
+    private final ArrayDeque<Step> undoSteps = new ArrayDeque<>();
+    private final ArrayDeque<Step> redoSteps = new ArrayDeque<>();
+    private Document document;
+    private DocumentFilter previousFilter;
+    private Step pending;
+    private long bytes;
+    private long lastCommit;
+    private boolean sealed;
+    private boolean applying;
+    private int replaceDepth;
+    private int groupDepth;
+    private boolean overflowed;
+    private int removedOffset = -1;
+    private int removedLength;
+    private String removedText;
+
+    TextHistory(JTextComponent textComponent, long maxBytes) {
+        this.textComponent = textComponent;
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    void install() {
+        setDocument(textComponent.getDocument());
+        textComponent.addPropertyChangeListener("document", e -> setDocument((Document) e.getNewValue()));
+        int mask = shortcutMask();
+        InputMap inputs = textComponent.getInputMap();
+        inputs.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, mask), "vibeui-undo");
+        inputs.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, mask), "vibeui-redo");
+        inputs.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, mask | InputEvent.SHIFT_DOWN_MASK), "vibeui-redo");
+        textComponent.getActionMap().put("vibeui-undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                undo();
+            }
+        });
+        textComponent.getActionMap().put("vibeui-redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                redo();
+            }
+        });
+    }
+
+    boolean undo() {
+        commit();
+        Step step = undoSteps.pollLast();
+        if (step == null || !apply(step, true)) {
+            return false;
+        }
+        redoSteps.addLast(step);
+        sealed = true;
+        return true;
+    }
+
+    boolean redo() {
+        commit();
+        Step step = redoSteps.pollLast();
+        if (step == null || !apply(step, false)) {
+            return false;
+        }
+        undoSteps.addLast(step);
+        sealed = true;
+        return true;
+    }
+
+    boolean canUndo() {
+        return pending != null || !undoSteps.isEmpty();
+    }
+
+    boolean canRedo() {
+        return pending == null && !redoSteps.isEmpty();
+    }
+
+    int undoCount() {
+        return undoSteps.size() + (pending != null ? 1 : 0);
+    }
+
+    int redoCount() {
+        return redoSteps.size();
+    }
+
+    long historyBytes() {
+        return bytes + (pending != null ? pending.bytes : 0);
+    }
+
+    void beginGroup() {
+        groupDepth++;
+    }
+
+    void endGroup() {
+        if (groupDepth > 0 && --groupDepth == 0) {
+            commit();
+        }
+    }
+
+    void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        pending = null;
+        overflowed = false;
+        bytes = 0;
+        removedText = null;
+        removedOffset = -1;
+    }
+
+    private void setDocument(Document newDocument) {
+        if (document != null) {
+            document.removeDocumentListener(this);
+            document.removeUndoableEditListener(this);
+            if (document instanceof AbstractDocument
+                    && ((AbstractDocument) document).getDocumentFilter() == this) {
+                ((AbstractDocument) document).setDocumentFilter(previousFilter);
+            }
+        }
+        clear();
+        document = newDocument;
+        previousFilter = null;
+        if (document != null) {
+            document.addDocumentListener(this);
+            document.addUndoableEditListener(this);
+            if (document instanceof AbstractDocument) {
+                previousFilter = ((AbstractDocument) document).getDocumentFilter();
+                ((AbstractDocument) document).setDocumentFilter(this);
+            }
+        }
+    }
+
+    private boolean apply(Step step, boolean undo) {
+        applying = true;
+        int caret = -1;
+        try {
+            List<Span> spans = step.spans;
+            for (int k = 0; k < spans.size(); k++) {
+                Span span = spans.get(undo ? spans.size() - 1 - k : k);
+                boolean insert = span.insert != undo;
+                if (insert) {
+                    document.insertString(span.offset, span.text.toString(), null);
+                    caret = span.offset + span.text.length();
+                } else {
+                    document.remove(span.offset, span.text.length());
+                    caret = span.offset;
+                }
+            }
+        } catch (BadLocationException e) {
+            clear();
+            return false;
+        } finally {
+            applying = false;
+        }
+        if (caret >= 0 && caret <= document.getLength()) {
+            textComponent.setCaretPosition(caret);
+        }
+        return true;
+    }
+
+    @Override
+    public void insertString(FilterBypass fb, int offset, String string, AttributeSet attr)
+            throws BadLocationException {
+        if (previousFilter != null) {
+            previousFilter.insertString(fb, offset, string, attr);
+        } else {
+            fb.insertString(offset, string, attr);
+        }
+    }
+
+    @Override
+    public void remove(FilterBypass fb, int offset, int length) throws BadLocationException {
+        captureRemoval(fb.getDocument(), offset, length);
+        if (previousFilter != null) {
+            previousFilter.remove(fb, offset, length);
+        } else {
+            fb.remove(offset, length);
+        }
+    }
+
+    @Override
+    public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs)
+            throws BadLocationException {
+        replaceDepth++;
+        try {
+            captureRemoval(fb.getDocument(), offset, length);
+            if (previousFilter != null) {
+                previousFilter.replace(fb, offset, length, text, attrs);
+            } else {
+                fb.replace(offset, length, text, attrs);
+            }
+        } finally {
+            replaceDepth--;
+        }
+        if (replaceDepth == 0 && groupDepth == 0 && !applying) {
+            commit();
+        }
+    }
+
+    // Removed text is gone by the time the document listener runs, so it is read here first.
+    private void captureRemoval(Document source, int offset, int length) throws BadLocationException {
+        removedOffset = offset;
+        removedLength = length;
+        removedText = applying || length <= 0 || spanBytes(length) > maxBytes ? null : source.getText(offset, length);
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        if (applying) {
+            return;
+        }
+        if (overflowed || spanBytes(e.getLength()) > maxBytes) {
+            overflowed = true;
+            return;
+        }
+        try {
+            record(new Span(true, e.getOffset(), document.getText(e.getOffset(), e.getLength())));
+        } catch (BadLocationException ex) {
+            clear();
+        }
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        if (applying) {
+            return;
+        }
+        boolean captured = removedOffset == e.getOffset() && removedLength == e.getLength();
+        if (captured && removedText != null) {
+            record(new Span(false, e.getOffset(), removedText));
+        } else if (captured && spanBytes(e.getLength()) > maxBytes) {
+            overflowed = true;
+        } else {
+            clear();
+        }
+        removedText = null;
+        removedOffset = -1;
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    @Override
+    public void undoableEditHappened(UndoableEditEvent e) {
+        if (!applying && replaceDepth == 0 && groupDepth == 0) {
+            commit();
+        }
+    }
+
+    // A step larger than the whole budget can never be kept, and older steps
+    // cannot be undone past it, so it ends up clearing the history.
+    private void record(Span span) {
+        if (overflowed) {
+            return;
+        }
+        if (pending == null) {
+            pending = new Step();
+        }
+        pending.add(span);
+        if (pending.bytes > maxBytes) {
+            pending = null;
+            overflowed = true;
+        }
+    }
+
+    private void commit() {
+        if (overflowed) {
+            overflowed = false;
+            clear();
+            return;
+        }
+        if (pending == null) {
+            return;
+        }
+        Step step = pending;
+        pending = null;
+        for (Step redo : redoSteps) {
+            bytes -= redo.bytes;
+        }
+        redoSteps.clear();
+        long now = System.nanoTime();
+        Step top = undoSteps.peekLast();
+        long grown = top != null && !sealed && now - lastCommit < COALESCE_NANOS ? top.absorb(step) : -1;
+        if (grown >= 0) {
+            bytes += grown;
+        } else {
+            undoSteps.addLast(step);
+            bytes += step.bytes;
+        }
+        lastCommit = now;
+        sealed = false;
+        while (bytes > maxBytes && !undoSteps.isEmpty()) {
+            bytes -= undoSteps.pollFirst().bytes;
+        }
+    }
+
+    private static long spanBytes(int length) {
+        return SPAN_OVERHEAD + 2L * length;
+    }
+
+    private static int shortcutMask() {
+        try {
+            return Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        } catch (HeadlessException e) {
+            return InputEvent.CTRL_DOWN_MASK;
+        }
+    }
+
+    private static final class Span {
+        final boolean insert;
+        int offset;
+        CharSequence text;
+
+        Span(boolean insert, int offset, CharSequence text) {
+            this.insert = insert;
+            this.offset = offset;
+            this.text = text;
+        }
+
+        // Extends a typing or deleting run by one adjacent single-character edit.
+        boolean absorb(Span next) {
+            if (next.insert != insert || next.text.length() != 1 || next.text.charAt(0) == '\n') {
+                return false;
+            }
+            if (insert && next.offset == offset + text.length()) {
+                builder().append(next.text);
+                return true;
+            }
+            if (!insert && next.offset + 1 == offset) {
+                builder().insert(0, next.text);
+                offset = next.offset;
+                return true;
+            }
+            if (!insert && next.offset == offset) {
+                builder().append(next.text);
+                return true;
+            }
+            return false;
+        }
+
+        private StringBuilder builder() {
+            if (!(text instanceof StringBuilder)) {
+                text = new StringBuilder(text);
+            }
+            return (StringBuilder) text;
+        }
+    }
+
+    private static final class Step {
+        final List<Span> spans = new ArrayList<>(1);
+        long bytes = STEP_OVERHEAD;
+
+        void add(Span span) {
+            spans.add(span);
+            bytes += spanBytes(span.text.length());
+        }
+
+        // Returns how many bytes the step grew by, or -1 if next could not be merged.
+        long absorb(Step next) {
+            if (spans.size() != 1 || next.spans.size() != 1 || !spans.get(0).absorb(next.spans.get(0))) {
+                return -1;
+            }
+            long grown = 2L * next.spans.get(0).text.length();
+            bytes += grown;
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Caret;
+import javax.swing.text.DefaultCaret;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Streams text into a document: a worker decodes fixed-size chunks into a
+// small bounded queue, and each frame inserts as many as fit in the budget.
+final class TextLoader {
+    private static final int CHUNK_CHARS = 1 << 18;
+    private static final int QUEUED_CHUNKS = 4;
+    private static final long FRAME_BUDGET_NANOS = 8_000_000L;
+
+    private final JTextComponent textComponent;
+    private final TextChangeDispatcher changes;
+    private final List<Consumer<Double>> progressHandlers = new ArrayList<>();
+    private final List<Consumer<Exception>> errorHandlers = new ArrayList<>();
+    private Load current;
+
+    TextLoader(JTextComponent textComponent, TextChangeDispatcher changes) {
+        this.textComponent = textComponent;
+        this.changes = changes;
+    }
+
+    void onProgress(Consumer<Double> handler) {
+        progressHandlers.add(handler);
+    }
+
+    void onError(Consumer<Exception> handler) {
+        errorHandlers.add(handler);
+    }
+
+    boolean isLoading() {
+        return current != null;
+    }
+
+    // Readers the caller passed in stay open; closeReader is for sources that
+    // open their own.
+    void start(Callable<Reader> source, boolean closeReader, long expectedChars, boolean replace,
+               Runnable finished) {
+        cancel();
+        Document document = textComponent.getDocument();
+        if (changes != null) {
+            changes.beginBulkEdit();
+        }
+        int offset;
+        try {
+            if (replace) {
+                offset = 0;
+                removeRange(document, 0, document.getLength());
+            } else {
+                int start = Math.min(textComponent.getSelectionStart(), textComponent.getSelectionEnd());
+                int end = Math.max(textComponent.getSelectionStart(), textComponent.getSelectionEnd());
+                offset = start;
+                removeRange(document, start, end - start);
+            }
+        } catch (BadLocationException e) {
+            if (changes != null) {
+                changes.endBulkEdit();
+            }
+            finished.run();
+            return;
+        }
+        Load load = new Load(document, offset, expectedChars, finished);
+        current = load;
+        load.task = BackgroundTasks.submit(() -> load.read(source, closeReader));
+        report(0.0);
+    }
+
+    void cancel() {
+        if (current != null) {
+            current.cancelled = true;
+            BackgroundTasks.cancel(current.task);
+            current.chunks.clear();
+            finish(current);
+        }
+    }
+
+    private void removeRange(Document document, int offset, int length) throws BadLocationException {
+        if (length > 0) {
+            document.remove(offset, length);
+        }
+    }
+
+    private void report(double progress) {
+        progressHandlers.forEach(handler -> handler.accept(progress));
+    }
+
+    private void finish(Load load) {
+        if (current != load) {
+            return;
+        }
+        current = null;
+        textComponent.setEditable(load.wasEditable);
+        if (load.caret instanceof DefaultCaret) {
+            ((DefaultCaret) load.caret).setUpdatePolicy(load.caretPolicy);
+        }
+        if (changes != null) {
+            changes.endBulkEdit();
+        }
+        if (!load.cancelled) {
+            textComponent.setCaretPosition(Math.min(load.position, load.document.getLength()));
+            if (load.error != null) {
+                errorHandlers.forEach(handler -> handler.accept(load.error));
+            } else {
+                report(1.0);
+            }
+        }
+        load.finished.run();
+    }
+
+    private final class Load {
+        final Document document;
+        final long expectedChars;
+        final Runnable finished;
+        final BlockingQueue<String> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final boolean wasEditable;
+        final Caret caret;
+        final int caretPolicy;
+        volatile boolean cancelled;
+        volatile boolean ended;
+        volatile Exception error;
+        Future<?> task;
+        int position;
+        long inserted;
+
+        Load(Document document, int position, long expectedChars, Runnable finished) {
+            this.document = document;
+            this.position = position;
+            this.expectedChars = expectedChars;
+            this.finished = finished;
+            this.wasEditable = textComponent.isEditable();
+            this.caret = textComponent.getCaret();
+            this.caretPolicy = caret instanceof DefaultCaret ? ((DefaultCaret) caret).getUpdatePolicy() : 0;
+            textComponent.setEditable(false);
+            if (caret instanceof DefaultCaret) {
+                ((DefaultCaret) caret).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+            }
+        }
+
+        void read(Callable<Reader> source, boolean closeReader) {
+            try {
+                Reader reader = source.call();
+                try {
+                    copy(reader);
+                } finally {
+                    if (closeReader) {
+                        reader.close();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Whatever was decoded before the failure stays in the document.
+                error = e;
+            }
+            ended = true;
+            schedule();
+        }
+
+        private void copy(Reader reader) throws IOException, InterruptedException {
+            char[] buffer = new char[CHUNK_CHARS];
+            while (!cancelled && error == null) {
+                int count = 0;
+                int read;
+                while (count < buffer.length && (read = reader.read(buffer, count, buffer.length - count)) >= 0) {
+                    count += read;
+                }
+                if (count == 0) {
+                    break;
+                }
+                chunks.put(new String(buffer, 0, count));
+                schedule();
+                if (count < buffer.length) {
+                    break;
+                }
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                FrameClock.requestFrame(this::drain);
+            }
+        }
+
+        private void drain() {
+            scheduled.set(false);
+            if (cancelled || current != this) {
+                return;
+            }
+            long start = System.nanoTime();
+            for (String chunk = chunks.poll(); chunk != null; chunk = chunks.poll()) {
+                try {
+                    document.insertString(position, chunk, null);
+                } catch (BadLocationException e) {
+                    error = e;
+                    BackgroundTasks.cancel(task);
+                    chunks.clear();
+                    finish(this);
+                    return;
+                }
+                position += chunk.length();
+                inserted += chunk.length();
+                if (System.nanoTime() - start >= FRAME_BUDGET_NANOS) {
+                    break;
+                }
+            }
+            if (ended && chunks.isEmpty()) {
+                finish(this);
+                return;
+            }
+            if (expectedChars > 0) {
+                report(Math.min(0.99, (double) inserted / expectedChars));
+            }
+            if (!chunks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.vibeui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.UndoableEditEvent;
+import javax.swing.event.UndoableEditListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Caret;
+import javax.swing.text.DefaultCaret;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Document;
+import javax.swing.text.Highlighter;
+import javax.swing.text.JTextComponent;
+import javax.swing.undo.CompoundEdit;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class TextSearch implements DocumentListener {
+    private static final int MAX_HIGHLIGHTS = 10000;
+    private static final int BATCH_SIZE = 512;
+    private static final long BATCH_NANOS = 30_000_000L;
+    private static final int RESTART_DELAY = 200;
+    private static final int CHECK_INTERVAL = 1 << 16;
+
+    private final JTextComponent textComponent;
+    private final TextChangeDispatcher changes;
+    private final Highlighter.HighlightPainter painter =
+            new DefaultHighlighter.DefaultHighlightPainter(new Color(255, 225, 110));
+    private final List<Object> highlights = new ArrayList<>();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Timer restartTimer;
+    private Consumer<int[][]> matchHandler;
+    private Consumer<Integer> completeHandler;
+    private Consumer<Exception> errorHandler;
+    private String literal;
+    private Pattern pattern;
+    private Future<?> task;
+    private int version;
+    private int matchCount;
+    private boolean replacing;
+
+    TextSearch(JTextComponent textComponent, TextChangeDispatcher changes) {
+        this.textComponent = textComponent;
+        this.changes = changes;
+        this.restartTimer = new Timer(RESTART_DELAY, e -> start(null));
+        restartTimer.setRepeats(false);
+        textComponent.getDocument().addDocumentListener(this);
+        textComponent.addPropertyChangeListener("document", e -> {
+            if (e.getOldValue() instanceof Document) {
+                ((Document) e.getOldValue()).removeDocumentListener(this);
+            }
+            if (e.getNewValue() instanceof Document) {
+                ((Document) e.getNewValue()).addDocumentListener(this);
+            }
+            version++;
+            if (isActive()) {
+                start(null);
+            }
+        });
+    }
+
+    void onMatches(Consumer<int[][]> handler) {
+        this.matchHandler = handler;
+    }
+
+    void onComplete(Consumer<Integer> handler) {
+        this.completeHandler = handler;
+    }
+
+    void onError(Consumer<Exception> handler) {
+        this.errorHandler = handler;
+    }
+
+    void find(String text) {
+        literal = text == null || text.isEmpty() ? null : text;
+        pattern = null;
+        start(null);
+    }
+
+    void findRegex(String regex) {
+        literal = null;
+        try {
+            pattern = regex == null || regex.isEmpty() ? null : Pattern.compile(regex);
+        } catch (RuntimeException e) {
+            pattern = null;
+            start(null);
+            int searchGeneration = generation.get();
+            SwingUtilities.invokeLater(() -> fail(searchGeneration, e));
+            return;
+        }
+        start(null);
+    }
+
+    void clear() {
+        literal = null;
+        pattern = null;
+        start(null);
+    }
+
+    void replaceAll(String replacement) {
+        if (isActive()) {
+            start(replacement == null ? "" : replacement);
+        }
+    }
+
+    private boolean isActive() {
+        return literal != null || pattern != null;
+    }
+
+    private void start(String replacement) {
+        restartTimer.stop();
+        BackgroundTasks.cancel(task);
+        task = null;
+        int searchGeneration = generation.incrementAndGet();
+        removeHighlights();
+        matchCount = 0;
+        if (!isActive()) {
+            return;
+        }
+        Document document = textComponent.getDocument();
+        String searchLiteral = literal;
+        Pattern searchPattern = pattern;
+        int searchVersion = version;
+        task = BackgroundTasks.submit(() -> {
+            Matches matches = new Matches(searchGeneration, replacement != null);
+            try {
+                DocumentText text = new DocumentText(document);
+                if (searchPattern != null) {
+                    scanRegex(text, searchPattern, replacement, matches);
+                } else {
+                    scanLiteral(text, searchLiteral, replacement, matches);
+                }
+            } catch (RuntimeException e) {
+                SwingUtilities.invokeLater(() -> fail(searchGeneration, e));
+                return;
+            }
+            if (replacement != null) {
+                SwingUtilities.invokeLater(() -> applyReplacements(matches, searchVersion));
+            } else {
+                matches.publish(true);
+            }
+        });
+    }
+
+    private void scanLiteral(CharSequence text, String query, String replacement, Matches matches) {
+        int m = query.length();
+        int n = text.length();
+        int[] shift = new int[256];
+        Arrays.fill(shift, m);
+        for (int i = 0; i < m - 1; i++) {
+            shift[query.charAt(i) & 0xFF] = m - 1 - i;
+        }
+        char last = query.charAt(m - 1);
+        int steps = 0;
+        int i = 0;
+        while (i <= n - m) {
+            if (++steps == CHECK_INTERVAL) {
+                steps = 0;
+                if (matches.isStale()) {
+                    return;
+                }
+            }
+            char c = text.charAt(i + m - 1);
+            if (c == last) {
+                int j = m - 2;
+                while (j >= 0 && text.charAt(i + j) == query.charAt(j)) {
+                    j--;
+                }
+                if (j < 0) {
+                    if (!matches.add(i, i + m, replacement)) {
+                        return;
+                    }
+                    i += m;
+                    continue;
+                }
+            }
+            i += shift[c & 0xFF];
+        }
+    }
+
+    private void scanRegex(CharSequence text, Pattern regex, String replacement, Matches matches) {
+        Matcher matcher = regex.matcher(text);
+        StringBuilder expanded = replacement != null ? new StringBuilder() : null;
+        int appended = 0;
+        while (matcher.find()) {
+            if (matcher.start() == matcher.end()) {
+                continue;
+            }
+            String value = null;
+            if (expanded != null) {
+                expanded.setLength(0);
+                matcher.appendReplacement(expanded, replacement);
+                value = expanded.substring(matcher.start() - appended);
+                appended = matcher.end();
+            }
+            if (!matches.add(matcher.start(), matcher.end(), value)) {
+                return;
+            }
+        }
+    }
+
+    private void applyReplacements(Matches matches, int searchVersion) {
+        if (matches.isStale() || searchVersion != version || matches.count == 0) {
+            return;
+        }
+        Document document = textComponent.getDocument();
+        UndoableEditListener[] listeners = document instanceof AbstractDocument
+                ? ((AbstractDocument) document).getUndoableEditListeners()
+                : new UndoableEditListener[0];
+        CompoundEdit compound = new CompoundEdit();
+        UndoableEditListener collector = e -> compound.addEdit(e.getEdit());
+        for (UndoableEditListener listener : listeners) {
+            document.removeUndoableEditListener(listener);
+        }
+        document.addUndoableEditListener(collector);
+        // Every highlight is a pair of document positions that each edit has to
+        // shift, and the search restarts afterwards anyway.
+        removeHighlights();
+        Caret caret = textComponent.getCaret();
+        int caretPolicy = caret instanceof DefaultCaret ? ((DefaultCaret) caret).getUpdatePolicy() : 0;
+        if (caret instanceof DefaultCaret) {
+            ((DefaultCaret) caret).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+        }
+        int caretPosition = textComponent.getCaretPosition();
+        int caretShift = 0;
+        if (changes != null) {
+            changes.beginBulkEdit();
+        }
+        replacing = true;
+        try {
+            for (int k = matches.count - 1; k >= 0; k--) {
+                int start = matches.starts[k];
+                int end = matches.ends[k];
+                String value = matches.replacements[k];
+                document.remove(start, end - start);
+                document.insertString(start, value, null);
+                if (start < caretPosition) {
+                    caretShift += value.length() - (Math.min(end, caretPosition) - start);
+                }
+            }
+        } catch (BadLocationException e) {
+            // The document no longer matches the scan; keep what was applied.
+        } finally {
+            replacing = false;
+            if (caret instanceof DefaultCaret) {
+                ((DefaultCaret) caret).setUpdatePolicy(caretPolicy);
+            }
+            textComponent.setCaretPosition(Math.max(0, Math.min(caretPosition + caretShift, document.getLength())));
+            document.removeUndoableEditListener(collector);
+            for (UndoableEditListener listener : listeners) {
+                document.addUndoableEditListener(listener);
+            }
+            compound.end();
+            UndoableEditEvent event = new UndoableEditEvent(document, compound);
+            for (UndoableEditListener listener : listeners) {
+                listener.undoableEditHappened(event);
+            }
+            if (changes != null) {
+                changes.endBulkEdit();
+            }
+        }
+        start(null);
+    }
+
+    private void removeHighlights() {
+        Highlighter highlighter = textComponent.getHighlighter();
+        for (Object tag : highlights) {
+            highlighter.removeHighlight(tag);
+        }
+        highlights.clear();
+    }
+
+    private void deliver(int searchGeneration, int[] starts, int[] ends, int from, int to, boolean done) {
+        if (searchGeneration != generation.get()) {
+            return;
+        }
+        Highlighter highlighter = textComponent.getHighlighter();
+        int[][] batch = new int[to - from][];
+        for (int i = from; i < to; i++) {
+            batch[i - from] = new int[] {starts[i], ends[i]};
+            if (highlights.size() < MAX_HIGHLIGHTS) {
+                try {
+                    highlights.add(highlighter.addHighlight(starts[i], ends[i], painter));
+                } catch (BadLocationException e) {
+                    break;
+                }
+            }
+        }
+        matchCount += batch.length;
+        if (matchHandler != null && batch.length > 0) {
+            matchHandler.accept(batch);
+        }
+        if (done && completeHandler != null) {
+            completeHandler.accept(matchCount);
+        }
+    }
+
+    private void fail(int searchGeneration, Exception error) {
+        if (searchGeneration != generation.get()) {
+            return;
+        }
+        if (errorHandler != null) {
+            errorHandler.accept(error);
+        }
+        if (completeHandler != null) {
+            completeHandler.accept(-1);
+        }
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        documentChanged();
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        documentChanged();
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    private void documentChanged() {
+        version++;
+        if (!replacing && isActive()) {
+            generation.incrementAndGet();
+            BackgroundTasks.cancel(task);
+            restartTimer.restart();
+        }
+    }
+
+    private final class Matches {
+        final int searchGeneration;
+        final boolean collectAll;
+        int[] starts = new int[BATCH_SIZE];
+        int[] ends = new int[BATCH_SIZE];
+        String[] replacements;
+        int count;
+        int published;
+        long lastPublish = System.nanoTime();
+
+        Matches(int searchGeneration, boolean collectAll) {
+            this.searchGeneration = searchGeneration;
+            this.collectAll = collectAll;
+            this.replacements = collectAll ? new String[BATCH_SIZE] : null;
+        }
+
+        boolean isStale() {
+            return searchGeneration != generation.get() || Thread.currentThread().isInterrupted();
+        }
+
+        boolean add(int start, int end, String replacement) {
+            if (isStale()) {
+                return false;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                if (collectAll) {
+                    replacements = Arrays.copyOf(replacements, count * 2);
+                }
+            }
+            starts[count] = start;
+            ends[count] = end;
+            if (collectAll) {
+                replacements[count] = replacement;
+            }
+            count++;
+            if (!collectAll && (count - published >= BATCH_SIZE || System.nanoTime() - lastPublish >= BATCH_NANOS)) {
+                publish(false);
+            }
+            return true;
+        }
+
+        void publish(boolean done) {
+            int[] batchStarts = starts;
+            int[] batchEnds = ends;
+            int from = published;
+            int to = count;
+            published = count;
+            lastPublish = System.nanoTime();
+            SwingUtilities.invokeLater(() -> deliver(searchGeneration, batchStarts, batchEnds, from, to, done));
+        }
+    }
+}
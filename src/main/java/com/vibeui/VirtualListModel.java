@@ -0,0 +1,93 @@
+package com.vibeui;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+@SuppressWarnings("serial")
+class VirtualListModel<E> extends AbstractListModel<E> {
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final IntFunction<E> provider;
+    private final Object[] cachedRows;
+    private final int[] cachedIndices;
+    private final int cacheMask;
+    private int size;
+
+    VirtualListModel(int size, IntFunction<E> provider) {
+        this(size, provider, DEFAULT_CACHE_SIZE);
+    }
+
+    VirtualListModel(int size, IntFunction<E> provider, int cacheSize) {
+        this.size = Math.max(0, size);
+        this.provider = provider;
+        int capacity = Integer.highestOneBit(Math.max(16, cacheSize - 1) << 1);
+        this.cachedRows = new Object[capacity];
+        this.cachedIndices = new int[capacity];
+        this.cacheMask = capacity - 1;
+        Arrays.fill(cachedIndices, -1);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getElementAt(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int slot = index & cacheMask;
+        if (cachedIndices[slot] == index) {
+            return (E) cachedRows[slot];
+        }
+        E row = provider.apply(index);
+        cachedRows[slot] = row;
+        cachedIndices[slot] = index;
+        return row;
+    }
+
+    void setSize(int newSize) {
+        newSize = Math.max(0, newSize);
+        int oldSize = size;
+        if (newSize == oldSize) {
+            return;
+        }
+        size = newSize;
+        if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        } else {
+            invalidate(newSize, oldSize - 1);
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        }
+    }
+
+    void refresh() {
+        invalidate(0, size - 1);
+        if (size > 0) {
+            fireContentsChanged(this, 0, size - 1);
+        }
+    }
+
+    void refresh(int fromIndex, int toIndex) {
+        fromIndex = Math.max(0, fromIndex);
+        toIndex = Math.min(size - 1, toIndex);
+        if (fromIndex > toIndex) {
+            return;
+        }
+        invalidate(fromIndex, toIndex);
+        fireContentsChanged(this, fromIndex, toIndex);
+    }
+
+    private void invalidate(int fromIndex, int toIndex) {
+        for (int slot = 0; slot < cachedIndices.length; slot++) {
+            int index = cachedIndices[slot];
+            if (index >= fromIndex && index <= toIndex) {
+                cachedIndices[slot] = -1;
+                cachedRows[slot] = null;
+            }
+        }
+    }
+}
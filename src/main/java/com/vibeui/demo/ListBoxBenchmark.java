@@ -0,0 +1,50 @@
+package com.vibeui.demo;
+
+import com.vibeui.ListBox;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ListBoxBenchmark {
+    private static final int ITEM_COUNT = 100_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int itemCount = args.length > 0 ? Integer.parseInt(args[0]) : ITEM_COUNT;
+        List<String> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add("Item " + i);
+        }
+
+        SwingUtilities.invokeAndWait(() -> {
+            runAddItemsBenchmark(items);
+        });
+    }
+
+    private static void runAddItemsBenchmark(List<String> items) {
+        long loopNanos = Long.MAX_VALUE;
+        long bulkNanos = Long.MAX_VALUE;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            DefaultListModel<String> model = new DefaultListModel<>();
+            JList<String> list = new JList<>(model);
+            long start = System.nanoTime();
+            for (String item : items) {
+                model.addElement(item);
+            }
+            loopNanos = Math.min(loopNanos, System.nanoTime() - start);
+
+            ListBox<String> listBox = ListBox.createEmpty();
+            start = System.nanoTime();
+            listBox.addItems(items);
+            bulkNanos = Math.min(bulkNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("Adding %,d items (best of %d rounds)%n", items.size(), ROUNDS);
+        System.out.printf("  per-item addElement loop: %8.2f ms%n", loopNanos / 1e6);
+        System.out.printf("  ListBox.addItems (bulk):  %8.2f ms%n", bulkNanos / 1e6);
+        System.out.printf("  speedup: %.1fx%n", (double) loopNanos / Math.max(1, bulkNanos));
+    }
+}
@@ -46,12 +46,12 @@ public class NewControlsDemo {
         Label comboLabel = Label.create("ComboBox Demo")
                 .font("Arial", Font.BOLD, 14);
 
-        ComboBox languageCombo = ComboBox.create("Java", "Python", "JavaScript", "C++", "Go")
+        ComboBox<String> languageCombo = ComboBox.create("Java", "Python", "JavaScript", "C++", "Go")
                 .selectedItem("Java")
                 .size(150, 30)
                 .onChange(selected -> System.out.println("Language selected: " + selected));
 
-        ComboBox editableCombo = ComboBox.createEmpty()
+        ComboBox<String> editableCombo = ComboBox.createEmpty()
                 .addItem("Option 1")
                 .addItem("Option 2")
                 .addItem("Option 3")
@@ -69,13 +69,13 @@ public class NewControlsDemo {
         Label listLabel = Label.create("ListBox Demo")
                 .font("Arial", Font.BOLD, 14);
 
-        ListBox singleSelectionList = ListBox.create("Item 1", "Item 2", "Item 3", "Item 4", "Item 5")
+        ListBox<String> singleSelectionList = ListBox.create("Item 1", "Item 2", "Item 3", "Item 4", "Item 5")
                 .size(200, 120)
                 .visibleRowCount(4)
                 .singleSelection()
                 .onSelection(selected -> System.out.println("Single selection: " + selected));
 
-        ListBox multiSelectionList = ListBox.create()
+        ListBox<String> multiSelectionList = ListBox.create()
                 .addItems(Arrays.asList("Apple", "Banana", "Cherry", "Date", "Elderberry"))
                 .size(200, 120)
                 .visibleRowCount(4)
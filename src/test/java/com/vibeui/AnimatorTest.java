@@ -0,0 +1,70 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnimatorTest {
+
+    @Test
+    void shouldStopAnimationFromAnotherThread() throws Exception {
+        // Given
+        List<ProgressBar> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(ProgressBar.create(100).animateTo(100, 10_000)));
+        ProgressBar bar = holder.get(0);
+        SwingUtilities.invokeAndWait(() -> assertTrue(bar.isAnimating()));
+
+        // When
+        bar.stopAnimation();
+
+        // Then
+        SwingUtilities.invokeAndWait(() -> assertFalse(bar.isAnimating()));
+    }
+
+    @Test
+    void shouldOnlyReadAnimationStateOnTheEdt() {
+        // Given
+        ProgressBar bar = ProgressBar.create(100);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, bar::isAnimating);
+    }
+
+    @Test
+    void shouldReadStartingValueOnTheEdt() throws Exception {
+        // Given
+        List<Label> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(Label.create("moving")));
+        Label label = holder.get(0);
+        CountDownLatch release = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        SwingUtilities.invokeLater(() -> label.getSwingComponent().setLocation(100, 0));
+
+        // When
+        label.animatePosition(200, 0, 10_000, Easing.linear());
+        release.countDown();
+        Thread.sleep(100);
+
+        // Then
+        int[] x = new int[1];
+        SwingUtilities.invokeAndWait(() -> {
+            x[0] = label.getSwingComponent().getX();
+            label.stopAnimations();
+        });
+        assertTrue(x[0] >= 100, "animation started from x=" + x[0]);
+    }
+}
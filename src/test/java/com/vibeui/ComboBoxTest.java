@@ -0,0 +1,78 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ComboBoxTest {
+
+    @Test
+    void shouldReportUnwrappedLoadFailureAndRetryOnNextOpen() throws Exception {
+        // Given
+        IOException failure = new IOException("offline");
+        AtomicInteger attempts = new AtomicInteger();
+        List<Throwable> errors = new ArrayList<>();
+        List<ComboBox<String>> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(ComboBox.lazyAsync(() -> attempts.incrementAndGet() == 1
+                        ? CompletableFuture.supplyAsync(() -> {
+                            throw new IllegalStateException(failure);
+                        }).thenApply(ignored -> Arrays.<String>asList())
+                        : CompletableFuture.completedFuture(Arrays.asList("a", "b")))
+                .onLoadError(errors::add)));
+        ComboBox<String> comboBox = holder.get(0);
+
+        // When
+        SwingUtilities.invokeAndWait(() -> open(comboBox));
+        awaitEdt(() -> !errors.isEmpty());
+        SwingUtilities.invokeAndWait(() -> open(comboBox));
+        awaitEdt(() -> comboBox.getItemCount() == 2);
+
+        // Then
+        assertEquals(1, errors.size());
+        assertSame(IllegalStateException.class, errors.get(0).getClass());
+        assertSame(failure, errors.get(0).getCause());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void shouldReportExceptionThrownByLoader() throws Exception {
+        // Given
+        RuntimeException failure = new UnsupportedOperationException("no loader");
+        List<Throwable> errors = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            ComboBox<String> comboBox = ComboBox.lazyAsync(() -> {
+                throw failure;
+            });
+            comboBox.onLoadError(errors::add);
+
+            // When
+            open(comboBox);
+        });
+
+        // Then
+        assertEquals(Arrays.asList(failure), errors);
+    }
+
+    private static void open(ComboBox<String> comboBox) {
+        ((JComboBox<?>) comboBox.getSwingComponent()).firePopupMenuWillBecomeVisible();
+    }
+
+    private static void awaitEdt(BooleanSupplier condition) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        boolean[] met = {false};
+        while (!met[0] && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            SwingUtilities.invokeAndWait(() -> met[0] = condition.getAsBoolean());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactStringListTest {
+    private static final String[] WORDS = {"", "a", "hello", "grüße", "日本語", "emoji 😀", null};
+
+    @Test
+    void shouldMatchArrayListUnderRandomEdits() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            List<String> expected = new ArrayList<>();
+            CompactStringList actual = new CompactStringList(64);
+            for (int step = 0; step < 2000; step++) {
+                int size = expected.size();
+                int op = random.nextInt(10);
+                if (op < 4 || size == 0) {
+                    int index = random.nextInt(size + 1);
+                    String item = randomItem(random);
+                    expected.add(index, item);
+                    actual.add(index, item);
+                } else if (op < 6) {
+                    int index = random.nextInt(size);
+                    String item = randomItem(random);
+                    assertEquals(expected.set(index, item), actual.set(index, item));
+                } else if (op < 8) {
+                    int index = random.nextInt(size);
+                    assertEquals(expected.remove(index), actual.remove(index));
+                } else if (op < 9) {
+                    int from = random.nextInt(size);
+                    int to = from + random.nextInt(size - from + 1);
+                    expected.subList(from, to).clear();
+                    actual.subList(from, to).clear();
+                } else {
+                    int index = random.nextInt(size + 1);
+                    List<String> batch = Arrays.asList(randomItem(random), randomItem(random));
+                    expected.addAll(index, batch);
+                    actual.addAll(index, batch);
+                }
+                assertEquals(expected, actual, "seed " + seed + " step " + step);
+            }
+        }
+    }
+
+    @Test
+    void shouldReclaimSpaceFromRemovedItems() {
+        // Given
+        CompactStringList list = new CompactStringList(1024);
+        for (int i = 0; i < 10_000; i++) {
+            list.add("item number " + i);
+        }
+
+        // When
+        list.subList(0, 9_900).clear();
+
+        // Then
+        assertEquals(100, list.size());
+        assertEquals("item number 9900", list.get(0));
+        assertTrue(list.getStoredBytes() < 4 * list.getLiveBytes() + 1024);
+    }
+
+    @Test
+    void shouldKeepNullItems() {
+        // Given
+        CompactStringList list = new CompactStringList(Arrays.asList("a", null, "b"));
+
+        // When
+        String removed = list.set(1, "x");
+
+        // Then
+        assertNull(removed);
+        assertEquals(Arrays.asList("a", "x", "b"), list);
+    }
+
+    @Test
+    void shouldRejectOutOfRangeIndex() {
+        // Given
+        CompactStringList list = new CompactStringList(Arrays.asList("a"));
+
+        // When / Then
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(-1, "b"));
+    }
+
+    private static String randomItem(Random random) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        return word == null || random.nextBoolean() ? word : word + random.nextInt(1000);
+    }
+}
@@ -0,0 +1,67 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsoleBufferTest {
+
+    @Test
+    void shouldNotifyOnceWithTrimmedTextPerFlush() throws Exception {
+        // Given
+        List<String> seen = new ArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(1);
+        List<TextBox> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(TextBox.console(3).onChange(text -> {
+            seen.add(text);
+            flushed.countDown();
+        })));
+        TextBox console = holder.get(0);
+
+        // When
+        SwingUtilities.invokeAndWait(() -> {
+            console.appendLine("one").appendLine("two");
+            console.appendLine("three").appendLine("four");
+        });
+        SwingUtilities.invokeAndWait(() -> console.appendLine("five"));
+
+        // Then
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(Arrays.asList("three\nfour\nfive\n"), seen);
+            assertEquals("three\nfour\nfive\n", console.getText());
+        });
+    }
+
+    @Test
+    void shouldClearImmediatelyOnTheEdt() throws Exception {
+        // Given
+        CountDownLatch flushed = new CountDownLatch(1);
+        List<TextBox> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            TextBox console = TextBox.console(10).onChange(text -> flushed.countDown());
+            console.appendLine("line");
+            holder.add(console);
+        });
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+
+        SwingUtilities.invokeAndWait(() -> {
+            // When
+            holder.get(0).appendLine("queued").clear();
+
+            // Then
+            assertEquals("", holder.get(0).getText());
+        });
+        Thread.sleep(100);
+        SwingUtilities.invokeAndWait(() -> assertEquals("", holder.get(0).getText()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilteredListModelTest {
+
+    @Test
+    void shouldFilterSmallListImmediately() throws Exception {
+        onEdt(() -> {
+            // Given
+            FilteredListModel<String> model = new FilteredListModel<>(itemsOf(rows(100)), String::valueOf);
+
+            // When
+            model.setQuery("ROW 4");
+
+            // Then
+            assertFalse(model.isPending());
+            assertEquals(11, model.getSize());
+            assertEquals("row 4", model.getElementAt(0));
+        });
+    }
+
+    @Test
+    void shouldFilterLargeListAcrossFramesOnTheEdt() throws Exception {
+        // Given
+        AtomicBoolean offEdt = new AtomicBoolean();
+        Function<String, String> projection = text -> {
+            if (!SwingUtilities.isEventDispatchThread()) {
+                offEdt.set(true);
+            }
+            return text;
+        };
+        List<FilteredListModel<String>> holder = new ArrayList<>();
+        onEdt(() -> holder.add(new FilteredListModel<>(itemsOf(rows(120_000)), projection)));
+        FilteredListModel<String> model = holder.get(0);
+
+        // When
+        onEdt(() -> model.setQuery("w 11999"));
+        awaitIdle(model);
+        onEdt(() -> model.setQuery("w 119999"));
+        awaitIdle(model);
+
+        // Then
+        onEdt(() -> {
+            assertEquals(1, model.getSize());
+            assertEquals("row 119999", model.getElementAt(0));
+        });
+        assertFalse(offEdt.get());
+    }
+
+    @Test
+    void shouldKeepFilterWhenSourceRowsAreAppended() throws Exception {
+        onEdt(() -> {
+            // Given
+            ItemListModel<String> source = itemsOf(rows(10));
+            FilteredListModel<String> model = new FilteredListModel<>(source, String::valueOf);
+            model.setQuery("row 1");
+
+            // When
+            source.add("row 10");
+            source.add("other");
+
+            // Then
+            assertEquals(2, model.getSize());
+            assertEquals("row 10", model.getElementAt(1));
+        });
+    }
+
+    private static ItemListModel<String> itemsOf(List<String> rows) {
+        return new ItemListModel<>(rows);
+    }
+
+    private static List<String> rows(int count) {
+        List<String> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add("row " + i);
+        }
+        return rows;
+    }
+
+    private static void awaitIdle(FilteredListModel<?> model) throws Exception {
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        boolean[] pending = {true};
+        while (pending[0]) {
+            assertTrue(System.nanoTime() < deadline, "filter did not finish");
+            Thread.sleep(5);
+            onEdt(() -> pending[0] = model.isPending());
+        }
+    }
+
+    private static void onEdt(Runnable action) throws Exception {
+        SwingUtilities.invokeAndWait(action);
+    }
+}
@@ -0,0 +1,40 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FormValidatorTest {
+
+    @Test
+    void shouldRecheckRuleWhenListBoxSelectionChanges() throws Exception {
+        // Given
+        List<ListBox<String>> holder = new ArrayList<>();
+        List<FormValidator> validators = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            ListBox<String> listBox = ListBox.create(Arrays.asList("a", "b", "c"));
+            holder.add(listBox);
+            FormValidator validator = FormValidator.create();
+            validator.rule("Pick one", () -> listBox.getSelectedIndex() >= 0, listBox);
+            validators.add(validator);
+        });
+        FormValidator validator = validators.get(0);
+        SwingUtilities.invokeAndWait(() -> assertFalse(validator.isValid()));
+
+        // When
+        SwingUtilities.invokeAndWait(() -> holder.get(0).selectedIndex(1));
+
+        // Then
+        SwingUtilities.invokeAndWait(() -> {
+            assertTrue(validator.isValid());
+            assertEquals(0, validator.getErrors().size());
+        });
+    }
+}
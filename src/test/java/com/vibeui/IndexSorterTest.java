@@ -0,0 +1,93 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexSorterTest {
+
+    @Test
+    void shouldSortStablyLikeArraysSort() {
+        for (int size : new int[] {0, 1, 15, 17, 1000, IndexSorter.PARALLEL_THRESHOLD * 4}) {
+            // Given
+            int[] keys = randomKeys(new Random(size), size, 50);
+            int[] indices = identity(size);
+
+            // When
+            IndexSorter.sort(indices, (a, b) -> Integer.compare(keys[a], keys[b]));
+
+            // Then
+            assertArrayEquals(expectedOrder(keys), indices, "size " + size);
+        }
+    }
+
+    @Test
+    void shouldSortOnlyTheGivenRange() {
+        // Given
+        int[] keys = {5, 4, 3, 2, 1, 0};
+        int[] indices = identity(keys.length);
+
+        // When
+        IndexSorter.sort(indices, 1, 5, (a, b) -> Integer.compare(keys[a], keys[b]));
+
+        // Then
+        assertArrayEquals(new int[] {0, 4, 3, 2, 1, 5}, indices);
+    }
+
+    @Test
+    void shouldFindInsertionPointAfterEqualKeys() {
+        // Given
+        int[] keys = {1, 2, 2, 2, 5, 2};
+        int[] sorted = {0, 1, 2, 3, 4};
+
+        // When
+        int position = IndexSorter.upperBound(sorted, sorted.length, 5, (a, b) -> Integer.compare(keys[a], keys[b]));
+
+        // Then
+        assertEquals(4, position);
+    }
+
+    @Test
+    void shouldMergeAndReportWhereRightEntriesLanded() {
+        // Given
+        int[] keys = {1, 3, 5, 2, 3, 6};
+        int[] left = {0, 1, 2};
+        int[] right = {3, 4, 5};
+        int[] rightPositions = new int[right.length];
+
+        // When
+        int[] merged = IndexSorter.merge(left, right, (a, b) -> Integer.compare(keys[a], keys[b]), rightPositions);
+
+        // Then
+        assertArrayEquals(new int[] {0, 3, 1, 4, 2, 5}, merged);
+        assertArrayEquals(new int[] {1, 3, 5}, rightPositions);
+    }
+
+    private static int[] expectedOrder(int[] keys) {
+        return Arrays.stream(identity(keys.length)).boxed()
+                .sorted(Comparator.comparingInt(row -> keys[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int[] identity(int size) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private static int[] randomKeys(Random random, int size, int bound) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(bound);
+        }
+        return keys;
+    }
+}
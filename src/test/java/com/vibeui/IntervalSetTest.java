@@ -0,0 +1,112 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntervalSetTest {
+    private static final int RANGE = 200;
+
+    @Test
+    void shouldMatchBitSetUnderRandomEdits() {
+        for (long seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            IntervalSet actual = new IntervalSet();
+            BitSet expected = new BitSet();
+            for (int step = 0; step < 500; step++) {
+                int from = random.nextInt(RANGE);
+                int to = from + random.nextInt(20);
+                int op = random.nextInt(10);
+                if (op < 4) {
+                    assertEquals(expected.get(from, to + 1).cardinality() < to - from + 1, actual.add(from, to));
+                    expected.set(from, to + 1);
+                } else if (op < 7) {
+                    assertEquals(!expected.get(from, to + 1).isEmpty(), actual.remove(from, to));
+                    expected.clear(from, to + 1);
+                } else if (op < 9) {
+                    int length = 1 + random.nextInt(10);
+                    actual.insertGap(from, length);
+                    insertGap(expected, from, length);
+                } else {
+                    actual.closeGap(from, to);
+                    closeGap(expected, from, to);
+                }
+                assertArrayEquals(ranges(expected), actual.toArray(), "seed " + seed + " step " + step);
+                assertEquals(expected.cardinality(), actual.size());
+                assertEquals(expected.isEmpty() ? -1 : expected.nextSetBit(0), actual.min());
+                assertEquals(expected.length() - 1, actual.max());
+            }
+        }
+    }
+
+    @Test
+    void shouldReportRangesInExactlyOneSet() {
+        // Given
+        IntervalSet a = new IntervalSet();
+        a.add(0, 9);
+        a.add(20, 29);
+        IntervalSet b = new IntervalSet();
+        b.add(5, 24);
+
+        // When
+        int[][] changed = IntervalSet.symmetricDifference(a, b);
+
+        // Then
+        assertArrayEquals(new int[][] {{0, 4}, {10, 19}, {25, 29}}, changed);
+    }
+
+    @Test
+    void shouldCopyIndependently() {
+        // Given
+        IntervalSet original = new IntervalSet();
+        original.add(3, 5);
+
+        // When
+        IntervalSet copy = new IntervalSet(original);
+        copy.add(10, 12);
+        original.remove(4, 4);
+
+        // Then
+        assertArrayEquals(new int[][] {{3, 3}, {5, 5}}, original.toArray());
+        assertArrayEquals(new int[][] {{3, 5}, {10, 12}}, copy.toArray());
+    }
+
+    private static void insertGap(BitSet bits, int index, int length) {
+        BitSet shifted = new BitSet();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            shifted.set(i >= index ? i + length : i);
+        }
+        bits.clear();
+        bits.or(shifted);
+    }
+
+    private static void closeGap(BitSet bits, int from, int to) {
+        BitSet shifted = new BitSet();
+        int length = to - from + 1;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            if (i < from) {
+                shifted.set(i);
+            } else if (i > to) {
+                shifted.set(i - length);
+            }
+        }
+        bits.clear();
+        bits.or(shifted);
+    }
+
+    private static int[][] ranges(BitSet bits) {
+        List<int[]> ranges = new ArrayList<>();
+        for (int start = bits.nextSetBit(0); start >= 0; ) {
+            int end = bits.nextClearBit(start) - 1;
+            ranges.add(new int[] {start, end});
+            start = bits.nextSetBit(end + 1);
+        }
+        return ranges.toArray(new int[0][]);
+    }
+}
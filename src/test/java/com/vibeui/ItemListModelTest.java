@@ -0,0 +1,89 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemListModelTest {
+
+    @Test
+    void shouldFireAddedAndChangedWhenSetAllGrows() {
+        // Given
+        ItemListModel<String> model = new ItemListModel<>(new ArrayList<>(Arrays.asList("a", "b")));
+        List<String> events = record(model);
+
+        // When
+        model.setAll(Arrays.asList("c", "d", "e", "f"));
+
+        // Then
+        assertEquals(Arrays.asList("added 2-3", "changed 0-1"), events);
+    }
+
+    @Test
+    void shouldFireRemovedAndChangedWhenSetAllShrinks() {
+        // Given
+        ItemListModel<String> model = new ItemListModel<>(new ArrayList<>(Arrays.asList("a", "b", "c")));
+        List<String> events = record(model);
+
+        // When
+        model.setAll(Arrays.asList("x"));
+
+        // Then
+        assertEquals(Arrays.asList("removed 1-2", "changed 0-0"), events);
+    }
+
+    @Test
+    void shouldFireOnlyChangedWhenSetAllKeepsSize() {
+        // Given
+        ItemListModel<String> model = new ItemListModel<>(new ArrayList<>(Arrays.asList("a", "b")));
+        List<String> events = record(model);
+
+        // When
+        model.setAll(Arrays.asList("x", "y"));
+
+        // Then
+        assertEquals(Arrays.asList("changed 0-1"), events);
+    }
+
+    @Test
+    void shouldDeliverSetAllEventsToCatalogViews() {
+        // Given
+        ItemCatalog<String> catalog = ItemCatalog.of("a");
+        ItemListModel<String> view = new ItemListModel<>(catalog);
+        List<String> events = record(view);
+
+        // When
+        catalog.setAll(Arrays.asList("x", "y"));
+
+        // Then
+        assertEquals(2, view.getSize());
+        assertEquals(Arrays.asList("added 1-1", "changed 0-0"), events);
+    }
+
+    private static List<String> record(ItemListModel<String> model) {
+        List<String> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+        });
+        return events;
+    }
+}
@@ -0,0 +1,125 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.UndoManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LargeTextDocumentTest {
+    private static final String ALPHABET = "ab \n";
+
+    @Test
+    void shouldMatchPlainDocumentUnderRandomEditsAndUndo() throws BadLocationException {
+        for (long seed = 0; seed < 20; seed++) {
+            runAgainstPlainDocument(seed, 2000);
+        }
+    }
+
+    @Test
+    void shouldNotOverwriteTextWhenSegmentIsReused() throws BadLocationException {
+        // Given
+        LargeTextDocument document = new LargeTextDocument();
+        document.insertString(0, "hello world", null);
+        Segment segment = new Segment();
+        segment.setPartialReturn(true);
+        document.getText(0, 5, segment);
+
+        // When
+        segment.setPartialReturn(false);
+        document.getText(6, 5, segment);
+
+        // Then
+        assertEquals("hello world", document.getText(0, document.getLength()));
+    }
+
+    private static void runAgainstPlainDocument(long seed, int steps) throws BadLocationException {
+        Random random = new Random(seed);
+        PlainDocument expected = new PlainDocument();
+        LargeTextDocument actual = new LargeTextDocument();
+        UndoManager expectedUndo = new UndoManager();
+        UndoManager actualUndo = new UndoManager();
+        expectedUndo.setLimit(-1);
+        actualUndo.setLimit(-1);
+        expected.addUndoableEditListener(expectedUndo);
+        actual.addUndoableEditListener(actualUndo);
+        List<Position> expectedPositions = new ArrayList<>();
+        List<Position> actualPositions = new ArrayList<>();
+
+        for (int step = 0; step < steps; step++) {
+            int length = expected.getLength();
+            int op = random.nextInt(20);
+            String description;
+            if (op < 8) {
+                int offset = random.nextInt(length + 1);
+                String text = randomText(random);
+                expected.insertString(offset, text, null);
+                actual.insertString(offset, text, null);
+                description = "insert " + offset + " " + text.length();
+            } else if (op < 12 && length > 0) {
+                int offset = random.nextInt(length);
+                int count = 1 + random.nextInt(Math.min(20, length - offset));
+                expected.remove(offset, count);
+                actual.remove(offset, count);
+                description = "remove " + offset + " " + count;
+            } else if (op < 16 && expectedUndo.canUndo()) {
+                expectedUndo.undo();
+                actualUndo.undo();
+                description = "undo";
+            } else if (op < 19 && expectedUndo.canRedo()) {
+                expectedUndo.redo();
+                actualUndo.redo();
+                description = "redo";
+            } else {
+                // GapContent hands a new position the existing mark at the same index, and
+                // marks squeezed together by an undoable removal share one; such a position
+                // is restored with that mark on undo. Starting from an empty history keeps
+                // new positions out of those pending groups.
+                expectedUndo.discardAllEdits();
+                actualUndo.discardAllEdits();
+                int offset = random.nextInt(length + 1);
+                expectedPositions.add(expected.createPosition(offset));
+                actualPositions.add(actual.createPosition(offset));
+                description = "position " + offset;
+            }
+            String context = "seed " + seed + ", step " + step + " (" + description + ")";
+            assertSameContent(expected, actual, context);
+            for (int i = 0; i < expectedPositions.size(); i++) {
+                assertEquals(expectedPositions.get(i).getOffset(), actualPositions.get(i).getOffset(),
+                        context + ", position " + i);
+            }
+        }
+    }
+
+    private static void assertSameContent(AbstractDocument expected, AbstractDocument actual, String context)
+            throws BadLocationException {
+        assertEquals(expected.getText(0, expected.getLength()), actual.getText(0, actual.getLength()), context);
+        Element expectedRoot = expected.getDefaultRootElement();
+        Element actualRoot = actual.getDefaultRootElement();
+        assertEquals(expectedRoot.getElementCount(), actualRoot.getElementCount(), context + ", line count");
+        for (int line = 0; line < expectedRoot.getElementCount(); line++) {
+            Element expectedLine = expectedRoot.getElement(line);
+            Element actualLine = actualRoot.getElement(line);
+            assertEquals(expectedLine.getStartOffset(), actualLine.getStartOffset(), context + ", start of line " + line);
+            assertEquals(expectedLine.getEndOffset(), actualLine.getEndOffset(), context + ", end of line " + line);
+        }
+    }
+
+    private static String randomText(Random random) {
+        int length = random.nextInt(8) == 0 ? 1 + random.nextInt(40) : 1 + random.nextInt(4);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ListBoxTest {
+
+    @Test
+    void shouldResortCollatedViewWhenProjectionChanges() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            ListBox<String> listBox = ListBox.create(Arrays.asList("b:1", "a:3", "c:2"), text -> text)
+                    .sortedBy(Collator.getInstance());
+            assertEquals(Arrays.asList("a:3", "b:1", "c:2"), listBox.getAllItems());
+
+            // When
+            listBox.projection(text -> text.substring(2));
+
+            // Then
+            assertEquals(Arrays.asList("b:1", "c:2", "a:3"), listBox.getAllItems());
+        });
+    }
+
+    @Test
+    void shouldRefilterWhenProjectionChanges() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            List<String> items = Arrays.asList("apple:red", "berry:blue", "plum:purple");
+            ListBox<String> listBox = ListBox.create(items, text -> text.substring(0, text.indexOf(':')))
+                    .filter("p");
+            assertEquals(Arrays.asList("apple:red", "plum:purple"), listBox.getAllItems());
+
+            // When
+            listBox.projection(text -> text.substring(text.indexOf(':') + 1));
+
+            // Then
+            assertEquals(Arrays.asList("plum:purple"), listBox.getAllItems());
+        });
+    }
+
+    @Test
+    void shouldRefilterSortedViewWhenProjectionChanges() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            List<String> items = Arrays.asList("zed:x", "amy:y", "bob:xx");
+            ListBox<String> listBox = ListBox.create(items, text -> text.substring(0, text.indexOf(':')))
+                    .sortedBy(Collator.getInstance())
+                    .filter("b");
+            assertEquals(Arrays.asList("bob:xx"), listBox.getAllItems());
+
+            // When
+            listBox.projection(text -> text.substring(text.indexOf(':') + 1)).filter("x");
+
+            // Then
+            assertEquals(Arrays.asList("zed:x", "bob:xx"), listBox.getAllItems());
+        });
+    }
+}
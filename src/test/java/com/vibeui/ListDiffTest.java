@@ -0,0 +1,110 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListDiffTest {
+
+    @Test
+    void shouldTransformOldIntoNewUnderRandomEdits() {
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            List<Integer> oldItems = randomList(random, random.nextInt(60));
+            List<Integer> newItems = edit(random, oldItems);
+
+            List<ListDiff.Hunk> hunks = ListDiff.compute(oldItems, newItems);
+
+            assertEquals(newItems, apply(oldItems, newItems, hunks), "seed " + seed);
+        }
+    }
+
+    @Test
+    void shouldReturnNoHunksForEqualLists() {
+        // Given
+        List<String> items = Arrays.asList("a", "b", "c");
+
+        // When
+        List<ListDiff.Hunk> hunks = ListDiff.compute(items, new ArrayList<>(items));
+
+        // Then
+        assertTrue(hunks.isEmpty());
+    }
+
+    @Test
+    void shouldReportSingleInsertionAsOneHunk() {
+        // Given
+        List<String> oldItems = Arrays.asList("a", "b", "c", "d");
+        List<String> newItems = Arrays.asList("a", "b", "x", "y", "c", "d");
+
+        // When
+        List<ListDiff.Hunk> hunks = ListDiff.compute(oldItems, newItems);
+
+        // Then
+        assertEquals(1, hunks.size());
+        assertEquals(2, hunks.get(0).oldStart);
+        assertEquals(0, hunks.get(0).oldLength());
+        assertEquals(2, hunks.get(0).newStart);
+        assertEquals(2, hunks.get(0).newLength());
+    }
+
+    @Test
+    void shouldFallBackToSingleHunkPastMaxEditDistance() {
+        // Given
+        List<Integer> oldItems = new ArrayList<>();
+        List<Integer> newItems = new ArrayList<>();
+        for (int i = 0; i < ListDiff.MAX_EDIT_DISTANCE * 2; i++) {
+            oldItems.add(i);
+            newItems.add(-i - 1);
+        }
+        newItems.add(0);
+
+        // When
+        List<ListDiff.Hunk> hunks = ListDiff.compute(oldItems, newItems);
+
+        // Then
+        assertEquals(newItems, apply(oldItems, newItems, hunks));
+    }
+
+    private static List<Integer> apply(List<Integer> oldItems, List<Integer> newItems, List<ListDiff.Hunk> hunks) {
+        List<Integer> result = new ArrayList<>(oldItems);
+        List<ListDiff.Hunk> reversed = new ArrayList<>(hunks);
+        Collections.reverse(reversed);
+        for (ListDiff.Hunk hunk : reversed) {
+            result.subList(hunk.oldStart, hunk.oldEnd).clear();
+            result.addAll(hunk.oldStart, newItems.subList(hunk.newStart, hunk.newEnd));
+        }
+        return result;
+    }
+
+    private static List<Integer> edit(Random random, List<Integer> items) {
+        List<Integer> edited = new ArrayList<>(items);
+        int edits = random.nextInt(8);
+        for (int i = 0; i < edits; i++) {
+            int op = random.nextInt(3);
+            if (op == 0 || edited.isEmpty()) {
+                edited.add(random.nextInt(edited.size() + 1), random.nextInt(10));
+            } else if (op == 1) {
+                edited.remove(random.nextInt(edited.size()));
+            } else {
+                edited.set(random.nextInt(edited.size()), random.nextInt(10));
+            }
+        }
+        return edited;
+    }
+
+    private static List<Integer> randomList(Random random, int size) {
+        List<Integer> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(random.nextInt(10));
+        }
+        return items;
+    }
+}
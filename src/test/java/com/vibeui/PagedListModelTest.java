@@ -0,0 +1,100 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PagedListModelTest {
+
+    @Test
+    void shouldLoadTouchedPage() throws Exception {
+        // Given
+        PagedListModel<String> model = new PagedListModel<>(source(1000), null);
+        CountDownLatch loaded = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                if (model.isLoaded(450)) {
+                    loaded.countDown();
+                }
+            }
+        }));
+
+        // When
+        SwingUtilities.invokeAndWait(() -> model.getElementAt(450));
+
+        // Then
+        assertTrue(loaded.await(10, TimeUnit.SECONDS));
+        String[] row = new String[1];
+        SwingUtilities.invokeAndWait(() -> row[0] = model.getElementAt(450));
+        assertEquals("row 450", row[0]);
+    }
+
+    @Test
+    void shouldReportFailedFetchOnTheEdt() throws Exception {
+        // Given
+        RuntimeException failure = new IllegalStateException("backend down");
+        PagedListModel<String> model = new PagedListModel<>(new PagedSource<String>() {
+            @Override
+            public int size() {
+                return 1000;
+            }
+
+            @Override
+            public List<String> fetch(int offset, int limit) {
+                throw failure;
+            }
+        }, null);
+        AtomicReference<Exception> reported = new AtomicReference<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> model.onError(e -> {
+            assertTrue(SwingUtilities.isEventDispatchThread());
+            reported.set(e);
+            failed.countDown();
+        }));
+
+        // When
+        SwingUtilities.invokeAndWait(() -> model.getElementAt(0));
+
+        // Then
+        assertTrue(failed.await(10, TimeUnit.SECONDS));
+        assertSame(failure, reported.get());
+    }
+
+    private static PagedSource<String> source(int size) {
+        return new PagedSource<String>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public List<String> fetch(int offset, int limit) {
+                List<String> rows = new ArrayList<>(limit);
+                for (int i = offset; i < offset + limit; i++) {
+                    rows.add("row " + i);
+                }
+                return rows;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrefixIndexTest {
+    private static final String ALPHABET = "abc -";
+
+    @Test
+    void shouldMatchLinearScanForRandomPrefixes() {
+        for (long seed = 0; seed < 20; seed++) {
+            // Given
+            Random random = new Random(seed);
+            String[] texts = new String[1 + random.nextInt(500)];
+            for (int i = 0; i < texts.length; i++) {
+                texts[i] = randomText(random, random.nextInt(12));
+            }
+            PrefixIndex index = PrefixIndex.build(texts);
+
+            for (int query = 0; query < 50; query++) {
+                String prefix = randomText(random, random.nextInt(4));
+                int limit = 1 + random.nextInt(40);
+
+                // When
+                int[] found = index.search(prefix, limit);
+
+                // Then
+                assertArrayEquals(PrefixIndex.scan(i -> texts[i], texts.length, prefix, limit), found,
+                        "seed " + seed + " prefix '" + prefix + "' limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void shouldRankFullPrefixMatchesBeforeWordMatchesAndListEachRowOnce() {
+        // Given
+        PrefixIndex index = PrefixIndex.build(new String[] {"new york", "york", "yorkshire", "old york-york"});
+
+        // When
+        int[] found = index.search("york", 10);
+
+        // Then
+        assertArrayEquals(new int[] {1, 2, 0, 3}, found);
+    }
+
+    @Test
+    void shouldFindExactMatchOnly() {
+        // Given
+        PrefixIndex index = PrefixIndex.build(new String[] {"apple", "applesauce", "banana"});
+
+        // When / Then
+        assertEquals(0, index.exactMatch("apple"));
+        assertEquals(2, index.exactMatch("banana"));
+        assertEquals(-1, index.exactMatch("app"));
+        assertEquals(-1, index.exactMatch("cherry"));
+    }
+
+    @Test
+    void shouldReturnShortestRowsForEmptyPrefix() {
+        // Given
+        String[] texts = {"ccc", "a", "bb", "dddd"};
+        PrefixIndex index = PrefixIndex.build(texts);
+
+        // When
+        int[] found = index.search("", 2);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2), Arrays.asList(found[0], found[1]));
+        assertEquals(2, found.length);
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RangeSelectionModelTest {
+
+    @Test
+    void shouldMatchDefaultListSelectionModelUnderRandomEdits() {
+        for (long seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            DefaultListSelectionModel expected = new DefaultListSelectionModel();
+            RangeSelectionModel actual = new RangeSelectionModel();
+            for (int step = 0; step < 300; step++) {
+                int index0 = random.nextInt(100);
+                int index1 = index0 + random.nextInt(10);
+                String description;
+                switch (random.nextInt(8)) {
+                    case 0:
+                        expected.setSelectionInterval(index0, index1);
+                        actual.setSelectionInterval(index0, index1);
+                        description = "set " + index0 + " " + index1;
+                        break;
+                    case 1:
+                    case 2:
+                        expected.addSelectionInterval(index0, index1);
+                        actual.addSelectionInterval(index0, index1);
+                        description = "add " + index0 + " " + index1;
+                        break;
+                    case 3:
+                        expected.removeSelectionInterval(index0, index1);
+                        actual.removeSelectionInterval(index0, index1);
+                        description = "remove " + index0 + " " + index1;
+                        break;
+                    case 4:
+                        boolean before = random.nextBoolean();
+                        expected.insertIndexInterval(index0, index1 - index0 + 1, before);
+                        actual.insertIndexInterval(index0, index1 - index0 + 1, before);
+                        description = "insert " + index0 + " " + index1 + " " + before;
+                        break;
+                    case 5:
+                        expected.removeIndexInterval(index0, index1);
+                        actual.removeIndexInterval(index0, index1);
+                        description = "removeIndex " + index0 + " " + index1;
+                        break;
+                    case 6:
+                        expected.setLeadSelectionIndex(index1);
+                        actual.setLeadSelectionIndex(index1);
+                        description = "lead " + index1;
+                        break;
+                    default:
+                        expected.clearSelection();
+                        actual.clearSelection();
+                        description = "clear";
+                        break;
+                }
+                String context = "seed " + seed + " step " + step + " " + description;
+                assertArrayEquals(expected.getSelectedIndices(), actual.getSelectedIndices(), context);
+                assertEquals(expected.getMinSelectionIndex(), actual.getMinSelectionIndex(), context);
+                assertEquals(expected.getMaxSelectionIndex(), actual.getMaxSelectionIndex(), context);
+                assertEquals(expected.getAnchorSelectionIndex(), actual.getAnchorSelectionIndex(), context);
+                assertEquals(expected.getLeadSelectionIndex(), actual.getLeadSelectionIndex(), context);
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepHugeSelectionAsOneRange() {
+        // Given
+        RangeSelectionModel model = new RangeSelectionModel();
+
+        // When
+        model.setSelectionInterval(0, 9_999_999);
+        model.removeSelectionInterval(500, 599);
+
+        // Then
+        assertArrayEquals(new int[][] {{0, 499}, {600, 9_999_999}}, model.getSelectedRanges());
+        assertEquals(9_999_900, model.getSelectedItemsCount());
+        assertEquals(9_999_900, model.selectedIndexStream().count());
+    }
+
+    @Test
+    void shouldTakeOnlyRangesChangedSinceLastCall() {
+        // Given
+        RangeSelectionModel model = new RangeSelectionModel();
+        model.setSelectionInterval(0, 9);
+        model.takeChangedRanges();
+
+        // When
+        model.setSelectionInterval(5, 14);
+        int[][] changed = model.takeChangedRanges();
+
+        // Then
+        assertArrayEquals(new int[][] {{0, 4}, {10, 14}}, changed);
+        assertEquals(0, model.takeChangedRanges().length);
+    }
+
+    @Test
+    void shouldStreamSelectedIndicesInOrder() {
+        // Given
+        RangeSelectionModel model = new RangeSelectionModel();
+        model.addSelectionInterval(7, 8);
+        model.addSelectionInterval(1, 2);
+
+        // When
+        int[] streamed = model.selectedIndexStream().toArray();
+
+        // Then
+        assertArrayEquals(IntStream.of(1, 2, 7, 8).toArray(), streamed);
+    }
+}
@@ -0,0 +1,104 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RingBufferListModelTest {
+
+    @Test
+    void shouldEvictOldestRowsPastCapacity() {
+        // Given
+        RingBufferListModel<String> model = new RingBufferListModel<>(3);
+        model.appendAll(Arrays.asList("a", "b"));
+
+        // When
+        model.appendAll(Arrays.asList("c", "d"));
+
+        // Then
+        assertEquals(Arrays.asList("b", "c", "d"), rows(model));
+    }
+
+    @Test
+    void shouldKeepOnlyTailOfBatchLargerThanCapacity() {
+        // Given
+        RingBufferListModel<Integer> model = new RingBufferListModel<>(3);
+        model.appendAll(Arrays.asList(1, 2));
+        List<String> events = record(model);
+
+        // When
+        model.appendAll(Arrays.asList(3, 4, 5, 6, 7));
+
+        // Then
+        assertEquals(Arrays.asList(5, 6, 7), rows(model));
+        assertEquals(Arrays.asList("removed 0-1", "added 0-2"), events);
+    }
+
+    @Test
+    void shouldFireOneRemovalAndOneAdditionPerBatch() {
+        // Given
+        RingBufferListModel<Integer> model = new RingBufferListModel<>(4);
+        model.appendAll(Arrays.asList(1, 2, 3));
+        List<String> events = record(model);
+
+        // When
+        model.appendAll(Arrays.asList(4, 5, 6));
+
+        // Then
+        assertEquals(Arrays.asList(3, 4, 5, 6), rows(model));
+        assertEquals(Arrays.asList("removed 0-1", "added 1-3"), events);
+    }
+
+    @Test
+    void shouldClearAndWrapAgain() {
+        // Given
+        RingBufferListModel<Integer> model = new RingBufferListModel<>(2);
+        model.appendAll(Arrays.asList(1, 2, 3));
+        List<String> events = record(model);
+
+        // When
+        model.clear();
+        model.appendAll(Arrays.asList(4));
+
+        // Then
+        assertEquals(Arrays.asList(4), rows(model));
+        assertNull(model.getElementAt(1));
+        assertEquals(Arrays.asList("removed 0-1", "added 0-0"), events);
+    }
+
+    private static <E> List<E> rows(RingBufferListModel<E> model) {
+        List<E> rows = new ArrayList<>();
+        for (int i = 0; i < model.getSize(); i++) {
+            rows.add(model.getElementAt(i));
+        }
+        return rows;
+    }
+
+    private static List<String> record(RingBufferListModel<?> model) {
+        List<String> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+        });
+        return events;
+    }
+}
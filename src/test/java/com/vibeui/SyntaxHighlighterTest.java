@@ -0,0 +1,115 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntaxHighlighterTest {
+
+    @Test
+    void shouldKeepLookAndFeelUiAndForeground() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea("{\"a\": 1}");
+            Class<?> uiClass = area.getUI().getClass();
+            Color foreground = area.getForeground();
+            SyntaxHighlighter highlighter = new SyntaxHighlighter(area, SyntaxTokenizer.json());
+
+            // When
+            highlighter.install();
+            Class<?> installedUiClass = area.getUI().getClass();
+            highlighter.uninstall();
+
+            // Then
+            assertSame(uiClass, installedUiClass);
+            assertEquals(foreground, area.getForeground());
+        });
+    }
+
+    @Test
+    void shouldPaintTokensInTheirColor() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea("WWWW WWWW");
+            area.setFont(area.getFont().deriveFont(24f));
+            new SyntaxHighlighter(area, (line, state, tokens) -> {
+                tokens.add(0, 4, Color.RED);
+                return state;
+            }).install();
+            area.setSize(area.getPreferredSize());
+
+            // When
+            BufferedImage image = paint(area, 0);
+
+            // Then
+            int half = area.getFontMetrics(area.getFont()).stringWidth("WWWW");
+            assertTrue(countPixels(image, 0, half, true) > 0);
+            assertEquals(0, countPixels(image, half, image.getWidth(), true));
+            assertTrue(countPixels(image, half, image.getWidth(), false) > 0);
+        });
+    }
+
+    @Test
+    void shouldNotTokenizeWholeDocumentToPaintItsEnd() throws Exception {
+        // Given
+        AtomicInteger tokenized = new AtomicInteger();
+        JTextArea[] area = new JTextArea[1];
+        SwingUtilities.invokeAndWait(() -> {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 200_000; i++) {
+                text.append("line ").append(i).append('\n');
+            }
+            area[0] = new JTextArea(text.toString());
+            new SyntaxHighlighter(area[0], (line, state, tokens) -> {
+                tokenized.incrementAndGet();
+                tokens.add(0, line.length(), Color.RED);
+                return state;
+            }).install();
+            area[0].setSize(area[0].getPreferredSize());
+
+            // When
+            paint(area[0], area[0].getHeight() - 100);
+        });
+
+        // Then
+        assertTrue(tokenized.get() < 5_000, "tokenized " + tokenized.get() + " lines on the paint path");
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (tokenized.get() < 200_000 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(tokenized.get() >= 200_000);
+    }
+
+    private static BufferedImage paint(JTextArea area, int top) {
+        BufferedImage image = new BufferedImage(area.getWidth(), area.getHeight() - top, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.translate(0, -top);
+        g.setClip(0, top, area.getWidth(), area.getHeight() - top);
+        area.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private static int countPixels(BufferedImage image, int fromX, int toX, boolean red) {
+        int count = 0;
+        for (int x = fromX; x < toX; x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                Color color = new Color(image.getRGB(x, y));
+                boolean isRed = color.getRed() > 200 && color.getGreen() < 60 && color.getBlue() < 60;
+                boolean isDark = color.getRed() < 60 && color.getGreen() < 60 && color.getBlue() < 60;
+                if (red ? isRed : isDark) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,117 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextChangeDispatcherTest {
+
+    @Test
+    void shouldNotifyOnceAtEndOfOuterBulkEdit() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea();
+            TextChangeDispatcher changes = new TextChangeDispatcher(area);
+            List<String> seen = new ArrayList<>();
+            changes.addChangeHandler(seen::add);
+
+            // When
+            changes.beginBulkEdit();
+            changes.setText("first");
+            changes.setText("second");
+            area.append("!");
+            changes.endBulkEdit();
+
+            // Then
+            assertEquals(Arrays.asList("second!"), seen);
+        });
+    }
+
+    @Test
+    void shouldNotNotifyWhenBulkEditChangesNothing() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea("same");
+            TextChangeDispatcher changes = new TextChangeDispatcher(area);
+            List<String> seen = new ArrayList<>();
+            changes.addChangeHandler(seen::add);
+
+            // When
+            changes.beginBulkEdit();
+            changes.endBulkEdit();
+
+            // Then
+            assertTrue(seen.isEmpty());
+        });
+    }
+
+    @Test
+    void shouldDebounceCoalescedHandlerUntilEditsStop() throws Exception {
+        // Given
+        JTextArea[] area = new JTextArea[1];
+        AtomicLong lastEdit = new AtomicLong();
+        AtomicLong firedAt = new AtomicLong();
+        List<String> seen = new ArrayList<>();
+        CountDownLatch fired = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> {
+            area[0] = new JTextArea();
+            TextChangeDispatcher changes = new TextChangeDispatcher(area[0]);
+            changes.addCoalescedHandler(text -> {
+                firedAt.set(System.nanoTime());
+                seen.add(text);
+                fired.countDown();
+            }, Duration.ofMillis(150));
+        });
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            SwingUtilities.invokeAndWait(() -> {
+                area[0].append("x");
+                lastEdit.set(System.nanoTime());
+            });
+            Thread.sleep(60);
+        }
+
+        // Then
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertEquals(Arrays.asList("xxxxxx"), seen);
+        assertTrue(firedAt.get() - lastEdit.get() >= TimeUnit.MILLISECONDS.toNanos(140));
+    }
+
+    @Test
+    void shouldCarryRemovedLengthWithEmptyText() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea("hello world");
+            TextChangeDispatcher changes = new TextChangeDispatcher(area);
+            List<TextEdit> edits = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            changes.addEditHandler(edit -> {
+                edits.add(edit);
+                texts.add(edit.text());
+            });
+
+            // When
+            area.replaceRange("", 5, 11);
+            area.insert("!", 5);
+
+            // Then
+            assertEquals(TextEdit.Type.REMOVE, edits.get(0).type());
+            assertEquals(5, edits.get(0).offset());
+            assertEquals(6, edits.get(0).length());
+            assertEquals(TextEdit.Type.INSERT, edits.get(1).type());
+            assertEquals(Arrays.asList("", "!"), texts);
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextHistoryTest {
+
+    @Test
+    void shouldUndoAndRedoEdits() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea("hello");
+            TextHistory history = new TextHistory(area, 1 << 20);
+            history.install();
+            area.replaceRange("jelly", 0, 5);
+
+            // When
+            boolean undone = history.undo();
+            String afterUndo = area.getText();
+            boolean redone = history.redo();
+
+            // Then
+            assertTrue(undone);
+            assertEquals("hello", afterUndo);
+            assertTrue(redone);
+            assertEquals("jelly", area.getText());
+            assertFalse(history.canRedo());
+        });
+    }
+
+    @Test
+    void shouldUndoGroupAsOneStep() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea("abc");
+            TextHistory history = new TextHistory(area, 1 << 20);
+            history.install();
+            history.undo();
+
+            // When
+            history.beginGroup();
+            area.insert("1", 0);
+            area.replaceRange("", 2, 3);
+            area.append("2");
+            history.endGroup();
+
+            // Then
+            assertEquals("1ac2", area.getText());
+            assertEquals(1, history.undoCount());
+            assertTrue(history.undo());
+            assertEquals("abc", area.getText());
+            assertFalse(history.canUndo());
+        });
+    }
+
+    @Test
+    void shouldDropRedoStepsOnNewEdit() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea();
+            TextHistory history = new TextHistory(area, 1 << 20);
+            history.install();
+            area.append("one");
+            history.undo();
+            assertTrue(history.canRedo());
+
+            // When
+            area.append("two");
+
+            // Then
+            assertFalse(history.canRedo());
+            assertEquals(0, history.redoCount());
+        });
+    }
+
+    @Test
+    void shouldForgetHistoryThatExceedsByteBudget() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea();
+            TextHistory history = new TextHistory(area, 1024);
+            history.install();
+
+            // When
+            area.append(new String(new char[4096]).replace('\0', 'x'));
+
+            // Then
+            assertFalse(history.undo());
+            assertEquals(4096, area.getDocument().getLength());
+            assertTrue(history.historyBytes() <= 1024);
+        });
+    }
+
+    @Test
+    void shouldTrimOldestStepsToStayWithinBudget() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Given
+            JTextArea area = new JTextArea();
+            TextHistory history = new TextHistory(area, 2048);
+            history.install();
+
+            // When
+            for (int i = 0; i < 50; i++) {
+                history.beginGroup();
+                area.insert("line " + i + "\n", 0);
+                history.endGroup();
+                history.undo();
+                history.redo();
+            }
+
+            // Then
+            assertTrue(history.historyBytes() <= 2048);
+            assertTrue(history.undoCount() > 0 && history.undoCount() < 50);
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextLoaderTest {
+
+    @Test
+    void shouldLeaveCallerReaderOpen() throws Exception {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        Reader reader = new StringReader("loaded") {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        List<TextBox> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(TextBox.createMultiline("old")));
+        TextBox textBox = holder.get(0);
+
+        // When
+        SwingUtilities.invokeAndWait(() -> textBox.loadAsync(reader));
+        awaitEdt(() -> !textBox.isLoading());
+
+        // Then
+        SwingUtilities.invokeAndWait(() -> assertEquals("loaded", textBox.getText()));
+        assertFalse(closed.get());
+    }
+
+    @Test
+    void shouldReplaceTextWithoutCopyingItIntoTheNewDocument() throws Exception {
+        // Given
+        List<String> seen = new ArrayList<>();
+        List<TextBox> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(TextBox.createMultiline("old").onChange(seen::add)));
+        TextBox textBox = holder.get(0);
+
+        // When
+        SwingUtilities.invokeAndWait(() -> {
+            textBox.loadAsync(new StringReader("new"));
+            assertEquals(0, area(textBox).getDocument().getLength());
+        });
+        awaitEdt(() -> !textBox.isLoading());
+
+        // Then
+        SwingUtilities.invokeAndWait(() -> {
+            assertTrue(area(textBox).getDocument() instanceof LargeTextDocument);
+            assertEquals(Arrays.asList("", "new"), seen);
+        });
+    }
+
+    @Test
+    void shouldReportInsertFailureThroughOnLoadError() throws Exception {
+        // Given
+        int chunk = 1 << 18;
+        CountDownLatch release = new CountDownLatch(1);
+        Reader reader = new Reader() {
+            private int served;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (served >= 2 * chunk) {
+                    return -1;
+                }
+                if (served == chunk) {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        return -1;
+                    }
+                }
+                int count = Math.min(length, chunk - served % chunk);
+                Arrays.fill(buffer, offset, offset + count, 'x');
+                served += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        List<Exception> errors = new ArrayList<>();
+        List<TextBox> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(TextBox.createMultiline().onLoadError(errors::add)));
+        TextBox textBox = holder.get(0);
+        SwingUtilities.invokeAndWait(() -> textBox.loadAsync(reader));
+        awaitEdt(() -> area(textBox).getDocument().getLength() == chunk);
+
+        // When
+        SwingUtilities.invokeAndWait(() -> {
+            Document document = area(textBox).getDocument();
+            try {
+                document.remove(0, document.getLength());
+            } catch (BadLocationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        release.countDown();
+        awaitEdt(() -> !textBox.isLoading());
+
+        // Then
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1, errors.size());
+            assertTrue(errors.get(0) instanceof BadLocationException);
+        });
+    }
+
+    private static JTextArea area(TextBox textBox) {
+        return (JTextArea) ((JScrollPane) textBox.getSwingComponent()).getViewport().getView();
+    }
+
+    private static void awaitEdt(BooleanSupplier condition) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        boolean[] met = {false};
+        while (!met[0] && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            SwingUtilities.invokeAndWait(() -> met[0] = condition.getAsBoolean());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.vibeui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextSearchTest {
+
+    @Test
+    void shouldReportInvalidRegex() throws Exception {
+        // Given
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        List<Exception> errors = new ArrayList<>();
+        List<TextBox> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> holder.add(TextBox.createMultiline("abc")
+                .onSearchComplete(completed::add)
+                .onSearchError(errors::add)));
+
+        // When
+        SwingUtilities.invokeAndWait(() -> holder.get(0).searchRegex("(unclosed"));
+
+        // Then
+        assertEquals(-1, completed.poll(5, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1, errors.size());
+            assertTrue(errors.get(0) instanceof PatternSyntaxException);
+        });
+    }
+
+    @Test
+    void shouldShiftCaretByReplacementsBeforeIt() throws Exception {
+        // Given
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        List<TextBox> holder = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            TextBox textBox = TextBox.createMultiline("a b a b a").onSearchComplete(completed::add);
+            JTextArea area = area(textBox);
+            area.setCaretPosition(6);
+            holder.add(textBox.search("a"));
+        });
+        assertEquals(3, completed.poll(5, TimeUnit.SECONDS));
+
+        // When
+        SwingUtilities.invokeAndWait(() -> holder.get(0).replaceAll("xyz"));
+
+        // Then
+        assertEquals(0, completed.poll(5, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> {
+            JTextArea area = area(holder.get(0));
+            assertEquals("xyz b xyz b xyz", area.getText());
+            assertEquals(10, area.getCaretPosition());
+        });
+    }
+
+    private static JTextArea area(TextBox textBox) {
+        return (JTextArea) ((JScrollPane) textBox.getSwingComponent()).getViewport().getView();
+    }
+}